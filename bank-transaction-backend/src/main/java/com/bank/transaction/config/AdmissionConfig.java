@@ -0,0 +1,42 @@
+package com.bank.transaction.config;
+
+import com.bank.transaction.util.AdaptiveConcurrencyLimit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Registers admission control in front of the transaction API (transaction.admission.*)
+ */
+@Configuration
+@ConditionalOnProperty(name = "transaction.admission.enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    @Bean
+    public AdmissionFilter admissionFilter(@Value("${transaction.admission.rate:200}") double rate,
+                                           @Value("${transaction.admission.burst:400}") int burst,
+                                           @Value("${transaction.admission.initial-limit:64}") int initialLimit,
+                                           @Value("${transaction.admission.min-limit:4}") int minLimit,
+                                           @Value("${transaction.admission.max-limit:512}") int maxLimit,
+                                           @Value("${transaction.admission.latency-target:250ms}") Duration latencyTarget,
+                                           @Value("${transaction.admission.backoff:0.9}") double backoff,
+                                           ClientIdentity clientIdentity) {
+        return new AdmissionFilter(rate, burst,
+                new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyTarget.toNanos(), backoff),
+                clientIdentity);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilterRegistration(AdmissionFilter admissionFilter) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(admissionFilter);
+        registration.addUrlPatterns("/api/transactions", "/api/transactions/*");
+        // Ahead of everything else, so rejected requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,147 @@
+package com.bank.transaction.config;
+
+import com.bank.transaction.util.AdaptiveConcurrencyLimit;
+import com.bank.transaction.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for write requests (POST, PUT, PATCH, DELETE)
+ *
+ * A request must first get a token from its client's bucket, then a slot under the global
+ * adaptive concurrency limit. Otherwise it is turned away at once with 429 and Retry-After,
+ * before it reaches a controller, instead of waiting for a busy store. Clients are told apart
+ * by {@link ClientIdentity}, never by a header they choose freely, so a client cannot get a fresh
+ * bucket per request; idle buckets are dropped.
+ *
+ * Bulk and batch writes hold a slot like any other write, but their latency grows with the rows
+ * they touch, so it is not fed to the adaptive limit: one large batch would otherwise cut the limit
+ * for every small write.
+ */
+public class AdmissionFilter extends OncePerRequestFilter implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final Set<String> UNSAMPLED_ENDPOINTS = Set.of("bulk", "batch");
+    private static final int MAX_CLIENTS = 100_000;
+    private static final Duration IDLE_CLIENT_EXPIRY = Duration.ofMinutes(10);
+
+    private final double rate;
+    private final int burst;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final ClientIdentity clientIdentity;
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .maximumSize(MAX_CLIENTS)
+            .expireAfterAccess(IDLE_CLIENT_EXPIRY)
+            .build();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder concurrencyLimited = new LongAdder();
+
+    /**
+     * @param rate Write requests per second allowed per client
+     * @param burst Write requests a client may make at once after being idle
+     * @param concurrencyLimit Global limit on writes in progress
+     * @param clientIdentity Resolves the client a bucket belongs to
+     */
+    public AdmissionFilter(double rate, int burst, AdaptiveConcurrencyLimit concurrencyLimit,
+                           ClientIdentity clientIdentity) {
+        // Validates the settings once rather than on a client's first request
+        new TokenBucket(rate, burst, 0);
+        this.rate = rate;
+        this.burst = burst;
+        this.concurrencyLimit = concurrencyLimit;
+        this.clientIdentity = clientIdentity;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !WRITE_METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        String client = clientIdentity.of(request);
+        long wait = buckets.get(client, key -> new TokenBucket(rate, burst, now)).tryAcquire(now);
+        if (wait > 0) {
+            rateLimited.increment();
+            logger.debug("Rate limited write from {}", client);
+            reject(response, wait, "Write rate limit exceeded for this client");
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            concurrencyLimited.increment();
+            logger.debug("Concurrency limit {} reached, rejecting write from {}", concurrencyLimit.getLimit(), client);
+            reject(response, TimeUnit.SECONDS.toNanos(1), "Too many writes in progress");
+            return;
+        }
+        admitted.increment();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (isSampled(request)) {
+                concurrencyLimit.release(System.nanoTime() - now);
+            } else {
+                concurrencyLimit.release();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("transaction.admission.admitted", admitted, LongAdder::sum)
+                .description("Write requests let through admission control")
+                .register(registry);
+        FunctionCounter.builder("transaction.admission.rejected", rateLimited, LongAdder::sum)
+                .description("Write requests turned away with 429")
+                .tag("reason", "rate")
+                .register(registry);
+        FunctionCounter.builder("transaction.admission.rejected", concurrencyLimited, LongAdder::sum)
+                .description("Write requests turned away with 429")
+                .tag("reason", "concurrency")
+                .register(registry);
+        Gauge.builder("transaction.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive limit on writes in progress")
+                .register(registry);
+        Gauge.builder("transaction.admission.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Writes in progress")
+                .register(registry);
+    }
+
+    private static boolean isSampled(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !UNSAMPLED_ENDPOINTS.contains(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos, String message) throws IOException {
+        long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Same shape as GlobalExceptionHandler's error responses
+        response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.transaction.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache tier for single-transaction reads
+ *
+ * The heap engine already hands out the stored Transaction objects, so a cache in front of it
+ * would only hold a second reference to each one; caching is disabled for it. The off-heap
+ * engine materializes a new object on every read, so it gets a bounded Caffeine cache
+ * (W-TinyLFU admission and eviction) sized by transaction.cache.spec. Hit, miss and eviction
+ * counts are published by actuator as cache.gets and cache.evictions.
+ *
+ * Writers evict before and after the write, but a read that loaded the old row just before a
+ * write can still put it back after the second eviction. The default spec therefore also
+ * expires entries shortly after they are written, which bounds how long such a copy is served.
+ */
+@Configuration
+public class CacheConfig {
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    /**
+     * Name of the cache used by TransactionServiceImpl
+     */
+    public static final String TRANSACTIONS = "transactions";
+
+    @Bean
+    @ConditionalOnProperty(name = "transaction.store.engine", havingValue = "offheap")
+    public CacheManager offHeapCacheManager(@Value("${transaction.cache.spec:maximumSize=100000,expireAfterWrite=5s,recordStats}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(TRANSACTIONS);
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        cacheManager.setAllowNullValues(false);
+        logger.info("Transaction cache enabled in front of the off-heap store: {}", spec);
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "transaction.store.engine", havingValue = "heap", matchIfMissing = true)
+    public CacheManager heapCacheManager() {
+        logger.info("Transaction cache disabled: the heap store serves reads directly");
+        return new NoOpCacheManager();
+    }
+}
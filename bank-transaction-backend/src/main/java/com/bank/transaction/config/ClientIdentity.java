@@ -0,0 +1,55 @@
+package com.bank.transaction.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Tells API clients apart for rate limiting and idempotency scopes
+ *
+ * An authenticated principal wins. Otherwise the X-Client-Id header is only believed when the
+ * request comes from one of transaction.clients.trusted-proxies, which are expected to set it
+ * themselves; anyone else could send a fresh value per request, or another client's. All other
+ * requests are identified by their remote address. The kinds are prefixed so a header value can
+ * never collide with an address or a user name.
+ */
+@Component
+public class ClientIdentity {
+
+    public static final String CLIENT_ID = "X-Client-Id";
+
+    private final Set<String> trustedProxies;
+
+    /**
+     * @param trustedProxies Remote addresses allowed to name the client in X-Client-Id
+     */
+    public ClientIdentity(@Value("${transaction.clients.trusted-proxies:}") String[] trustedProxies) {
+        this.trustedProxies = Arrays.stream(trustedProxies)
+                .map(String::strip)
+                .filter(proxy -> !proxy.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @return A stable identity for the client that sent the request
+     */
+    public String of(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String address = request.getRemoteAddr();
+        if (trustedProxies.contains(address)) {
+            String client = request.getHeader(CLIENT_ID);
+            if (client != null && !client.isBlank()) {
+                return "client:" + client.strip();
+            }
+        }
+        return "addr:" + address;
+    }
+}
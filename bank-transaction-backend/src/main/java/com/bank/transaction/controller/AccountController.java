@@ -0,0 +1,56 @@
+package com.bank.transaction.controller;
+
+import com.bank.transaction.model.AccountBalance;
+import com.bank.transaction.model.TransactionPage;
+import com.bank.transaction.service.TransactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/accounts")
+@Tag(name = "Account Controller", description = "API for account-level views of bank transactions")
+public class AccountController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountController.class);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @GetMapping("/{account}/transactions")
+    @Operation(summary = "Get the transactions of an account, newest first")
+    public ResponseEntity<TransactionPage> getAccountTransactions(
+            @Parameter(description = "Account number", required = true)
+            @PathVariable String account,
+            @Parameter(description = "Page size")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Cursor from a previous page's nextCursor (empty starts from the newest)")
+            @RequestParam(required = false) String after) {
+        
+        logger.info("Fetching transactions for account: {}, size: {}, after: {}", account, size, after);
+        
+        return ResponseEntity.ok(transactionService.getAccountTransactions(account, size, after));
+    }
+
+    @GetMapping("/{account}/balance")
+    @Operation(summary = "Get the current balance of an account")
+    public ResponseEntity<AccountBalance> getAccountBalance(
+            @Parameter(description = "Account number", required = true)
+            @PathVariable String account) {
+        
+        logger.info("Fetching balance for account: {}", account);
+        
+        AccountBalance balance = transactionService.getAccountBalance(account);
+        if (balance == null) {
+            logger.warn("No balance found for account: {}", account);
+            return ResponseEntity.notFound().build();
+        }
+        
+        return ResponseEntity.ok(balance);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bank.transaction.controller;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.service.idempotency.IdempotencyCache;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Fingerprints transaction bodies sent with an Idempotency-Key, so a retry can be told apart
+ * from a different request reusing the key
+ * The body is read once here and handed on unchanged to the JSON converter.
+ */
+@ControllerAdvice(assignableTypes = TransactionController.class)
+public class IdempotencyFingerprintAdvice extends RequestBodyAdviceAdapter {
+
+    /**
+     * Request attribute holding the fingerprint of the body
+     */
+    static final String FINGERPRINT = IdempotencyFingerprintAdvice.class.getName() + ".fingerprint";
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == Transaction.class;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+        if (!inputMessage.getHeaders().containsKey(TransactionController.IDEMPOTENCY_KEY)) {
+            return inputMessage;
+        }
+        byte[] body = inputMessage.getBody().readAllBytes();
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(FINGERPRINT, IdempotencyCache.fingerprint(body), RequestAttributes.SCOPE_REQUEST);
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+        };
+    }
+}
@@ -1,24 +1,66 @@
 package com.bank.transaction.controller;
 
+import com.bank.transaction.config.ClientIdentity;
+import com.bank.transaction.exception.IdempotencyKeyReuseException;
+import com.bank.transaction.exception.InvalidStatusTransitionException;
+import com.bank.transaction.model.AggregateGroup;
+import com.bank.transaction.model.AggregateMetric;
+import com.bank.transaction.model.BatchItemResult;
+import com.bank.transaction.model.BatchResult;
+import com.bank.transaction.model.BulkUpdateResult;
+import com.bank.transaction.model.StatusUpdate;
 import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionAggregate;
 import com.bank.transaction.model.TransactionPage;
+import com.bank.transaction.model.TransactionQuery;
 import com.bank.transaction.model.TransactionStatus;
 import com.bank.transaction.model.TransactionType;
 import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.service.feed.TransactionFeed;
+import com.bank.transaction.service.idempotency.IdempotencyCache;
+import com.bank.transaction.util.TransactionCsv;
 import com.bank.transaction.validator.TransactionValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Validator;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -27,36 +69,152 @@ public class TransactionController {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     @Autowired
     private TransactionService transactionService;
 
     @Autowired
     private TransactionValidator transactionValidator;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @Autowired
+    private TransactionFeed transactionFeed;
+
+    @Autowired
+    private ClientIdentity clientIdentity;
+
+    @Value("${transaction.batch.max-size:10000}")
+    private int maxBatchSize;
+
     @InitBinder
     protected void initBinder(WebDataBinder binder) {
-        binder.addValidators(transactionValidator);
+        // Also applied by validate() to every created transaction, single or batch
+        if (binder.getTarget() == null || transactionValidator.supports(binder.getTarget().getClass())) {
+            binder.addValidators(transactionValidator);
+        }
     }
 
     @PostMapping
     @Operation(summary = "Create a new transaction")
-    public ResponseEntity<Transaction> createTransaction(@RequestBody Transaction transaction, BindingResult bindingResult) {
-        logger.info("Creating transaction: {}", transaction);
+    public ResponseEntity<Transaction> createTransaction(
+            @RequestBody Transaction transaction,
+            @Parameter(description = "Client-chosen key; retries with the same key and body return the first response instead of creating again")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            HttpServletRequest request) {
+        logger.info("Creating transaction: {}, Idempotency-Key: {}", transaction, idempotencyKey);
         
+        BindingResult bindingResult = validate(transaction);
         if (bindingResult.hasErrors()) {
             logger.error("Validation errors: {}", bindingResult.getAllErrors());
             return ResponseEntity.badRequest().body(null);
         }
         
         try {
-            Transaction createdTransaction = transactionService.createTransaction(transaction);
-            return new ResponseEntity<>(createdTransaction, HttpStatus.CREATED);
+            if (idempotencyKey == null) {
+                Transaction createdTransaction = transactionService.createTransaction(transaction);
+                return new ResponseEntity<>(createdTransaction, HttpStatus.CREATED);
+            }
+            // Keys are scoped by a verified identity, so no caller can replay another client's responses
+            String client = clientIdentity.of(request);
+            String fingerprint = (String) request.getAttribute(IdempotencyFingerprintAdvice.FINGERPRINT);
+            IdempotencyCache.Outcome outcome = idempotencyCache.getOrCreate(client, idempotencyKey, fingerprint,
+                    () -> transactionService.createTransaction(transaction));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED, Boolean.toString(outcome.replayed()))
+                    .body(outcome.transaction());
+        } catch (IdempotencyKeyReuseException e) {
+            logger.error("Rejected reused Idempotency-Key: {}", e.getMessage());
+            return ResponseEntity.unprocessableEntity().body(null);
         } catch (IllegalArgumentException e) {
             logger.error("Failed to create transaction: {}", e.getMessage());
             return ResponseEntity.badRequest().body(null);
         }
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create transactions from a JSON array")
+    public ResponseEntity<BatchResult> createTransactions(@RequestBody List<Transaction> transactions) {
+        logger.info("Creating batch of {} transactions", transactions.size());
+        
+        return ResponseEntity.ok(createBatch(transactions));
+    }
+
+    @PostMapping(value = "/batch", consumes = "application/x-ndjson")
+    @Operation(summary = "Create transactions from newline-delimited JSON")
+    public ResponseEntity<BatchResult> createTransactionsNdjson(InputStream body) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        try (MappingIterator<Transaction> items = objectMapper.readerFor(Transaction.class).readValues(body)) {
+            while (items.hasNextValue()) {
+                if (transactions.size() == maxBatchSize) {
+                    throw new IllegalArgumentException("Batch exceeds " + maxBatchSize + " items");
+                }
+                transactions.add(items.nextValue());
+            }
+        }
+        logger.info("Creating NDJSON batch of {} transactions", transactions.size());
+        
+        return ResponseEntity.ok(createBatch(transactions));
+    }
+
+    /**
+     * Validates every item, then creates the valid ones in a single service call
+     * Invalid items are reported with their errors and do not stop the rest of the batch
+     */
+    private BatchResult createBatch(List<Transaction> transactions) {
+        if (transactions.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch exceeds " + maxBatchSize + " items");
+        }
+        
+        List<BatchItemResult> results = new ArrayList<>(transactions.size());
+        List<Transaction> valid = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            List<String> errors = transaction == null
+                    ? List.of("Transaction is required")
+                    : validate(transaction).getFieldErrors().stream()
+                            .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                            .toList();
+            results.add(new BatchItemResult(i, null, errors));
+            if (errors.isEmpty()) {
+                valid.add(transaction);
+            }
+        }
+        
+        List<Transaction> created = transactionService.createTransactions(valid);
+        int next = 0;
+        for (BatchItemResult result : results) {
+            if (result.getErrors().isEmpty()) {
+                result.setId(created.get(next++).getId());
+            }
+        }
+        return new BatchResult(created.size(), transactions.size() - created.size(), results);
+    }
+
+    /**
+     * Validates a transaction to be created against its field constraints and every validator
+     * registered in initBinder; single and batch creates both go through here, so they accept
+     * exactly the same rows
+     */
+    private BindingResult validate(Transaction transaction) {
+        WebDataBinder binder = new WebDataBinder(transaction, "transaction");
+        binder.addValidators(new SpringValidatorAdapter(validator));
+        initBinder(binder);
+        binder.validate();
+        return binder.getBindingResult();
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a transaction by ID")
     public ResponseEntity<Transaction> getTransaction(
@@ -70,7 +228,7 @@ public class TransactionController {
             return ResponseEntity.notFound().build();
         }
         
-        return ResponseEntity.ok(transaction);
+        return ResponseEntity.ok().eTag(eTag(transaction)).body(transaction);
     }
 
     @GetMapping
@@ -82,6 +240,66 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Stream matching transactions as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @Parameter(description = "Output format: ndjson or csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Transaction type filter")
+            @RequestParam(required = false) TransactionType type,
+            @Parameter(description = "Transaction status filter")
+            @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Earliest timestamp, inclusive (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest timestamp, exclusive (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        logger.info("Exporting transactions as {}, type: {}, status: {}, from: {}, to: {}", format, type, status, from, to);
+        
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            logger.error("Unsupported export format: {}", format);
+            return ResponseEntity.badRequest().build();
+        }
+        TransactionQuery query = new TransactionQuery(0, 1, type, status, null);
+        query.setFrom(from);
+        query.setTo(to);
+        Stream<Transaction> transactions = transactionService.streamTransactions(query);
+        
+        // Runs after this method returns; rows go through the response buffer as they are read
+        StreamingResponseBody body = out -> {
+            try (transactions) {
+                if (csv) {
+                    writeCsv(transactions, out);
+                } else {
+                    writeNdjson(transactions, out);
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transactions." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Live feed of created, updated and deleted transactions (Server-Sent Events)")
+    public ResponseEntity<SseEmitter> streamTransactions(
+            @Parameter(description = "Only changes to transactions of this type")
+            @RequestParam(required = false) TransactionType type,
+            @Parameter(description = "Only changes to transactions in this status")
+            @RequestParam(required = false) TransactionStatus status) {
+        logger.info("Opening live feed, type: {}, status: {}", type, status);
+        
+        SseEmitter emitter = transactionFeed.subscribe(type, status);
+        if (emitter == null) {
+            logger.warn("Live feed subscriber limit reached");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        // Stops nginx from buffering the stream
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+
     @GetMapping("/paged")
     @Operation(summary = "Get transactions with pagination and filtering")
     public ResponseEntity<TransactionPage> getTransactionsPaged(
@@ -94,36 +312,210 @@ public class TransactionController {
             @Parameter(description = "Filter by transaction status")
             @RequestParam(required = false) TransactionStatus status,
             @Parameter(description = "Search by transaction ID")
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Cursor from a previous page's nextCursor; switches to cursor paging (empty starts from the newest)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Earliest timestamp, inclusive (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest timestamp, exclusive (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
         
-        logger.info("Fetching transactions page: {}, size: {}, type: {}, status: {}, search: {}", 
-                page, size, type, status, search);
+        logger.info("Fetching transactions page: {}, size: {}, type: {}, status: {}, search: {}, after: {}, from: {}, to: {}", 
+                page, size, type, status, search, after, from, to);
         
-        List<Transaction> transactions = transactionService.getTransactionsPaged(page, size, type, status, search);
-        long totalCount = transactionService.getTransactionCount(type, status, search);
+        TransactionQuery query = new TransactionQuery(page, size, type, status, search);
+        query.setAfter(after);
+        query.setFrom(from);
+        query.setTo(to);
         
-        TransactionPage transactionPage = new TransactionPage(transactions, page, size, totalCount);
+        // Page and total come from one evaluation of the filters
+        TransactionPage transactionPage = transactionService.queryTransactions(query);
         return ResponseEntity.ok(transactionPage);
     }
 
+    @GetMapping("/stats/counts")
+    @Operation(summary = "Get transaction counts by type and status")
+    public ResponseEntity<Map<TransactionType, Map<TransactionStatus, Long>>> getTransactionCounts() {
+        logger.info("Fetching transaction counts by type and status");
+        
+        return ResponseEntity.ok(transactionService.getTransactionCountsByTypeAndStatus());
+    }
+
+    @GetMapping("/aggregate")
+    @Operation(summary = "Aggregate transactions by type, status and/or day")
+    public ResponseEntity<List<TransactionAggregate>> aggregateTransactions(
+            @Parameter(description = "Comma-separated dimensions: type, status, day (omit for one overall row)")
+            @RequestParam(required = false) List<String> groupBy,
+            @Parameter(description = "Comma-separated metrics: count, sum, avg")
+            @RequestParam(defaultValue = "count,sum,avg") List<String> metric) {
+        
+        logger.info("Aggregating transactions by {}, metrics: {}", groupBy, metric);
+        
+        Set<AggregateGroup> groups = EnumSet.noneOf(AggregateGroup.class);
+        if (groupBy != null) {
+            groupBy.forEach(name -> groups.add(AggregateGroup.of(name)));
+        }
+        Set<AggregateMetric> metrics = EnumSet.noneOf(AggregateMetric.class);
+        metric.forEach(name -> metrics.add(AggregateMetric.of(name)));
+        
+        return ResponseEntity.ok(transactionService.aggregateTransactions(groups, metrics));
+    }
+
+    private void writeNdjson(Stream<Transaction> transactions, OutputStream out) throws IOException {
+        // Flushing after each row would send one chunk per transaction
+        ObjectWriter writer = objectMapper.writerFor(Transaction.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+            for (Iterator<Transaction> it = transactions.iterator(); it.hasNext(); ) {
+                writer.writeValue(generator, it.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private static void writeCsv(Stream<Transaction> transactions, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(TransactionCsv.HEADER);
+        writer.write('\n');
+        for (Iterator<Transaction> it = transactions.iterator(); it.hasNext(); ) {
+            writer.write(TransactionCsv.format(it.next()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing transaction")
+    @Operation(summary = "Update an existing transaction, optionally conditional on its ETag",
+            description = "A status change follows the same lifecycle as PATCH /{id}/status (409 if not allowed)")
     public ResponseEntity<Transaction> updateTransaction(
             @Parameter(description = "Transaction ID", required = true)
             @PathVariable Long id,
+            @Parameter(description = "ETag from a previous read; the update is refused with 412 if the transaction has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Transaction transaction) {
         
-        logger.info("Updating transaction with ID: {}", id);
+        logger.info("Updating transaction with ID: {}, If-Match: {}", id, ifMatch);
         
         try {
-            Transaction updatedTransaction = transactionService.updateTransaction(id, transaction);
-            return ResponseEntity.ok(updatedTransaction);
+            Transaction updatedTransaction = transactionService.updateTransaction(id, transaction, expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(eTag(updatedTransaction)).body(updatedTransaction);
+        } catch (InvalidStatusTransitionException e) {
+            logger.error("Rejected status change: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (IllegalArgumentException e) {
             logger.error("Failed to update transaction: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
 
+    @PutMapping("/bulk")
+    @Operation(summary = "Set the status of all transactions matching the filters",
+            description = "Follows the same lifecycle as PATCH /{id}/status: rows that cannot make the transition "
+                    + "are skipped and counted. Versions are not checked, as there is no per-row If-Match")
+    public ResponseEntity<BulkUpdateResult> updateTransactions(
+            @Parameter(description = "Filter by transaction type")
+            @RequestParam(required = false) TransactionType type,
+            @Parameter(description = "Filter by transaction status")
+            @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Search by transaction ID")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Earliest timestamp, inclusive (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest timestamp, exclusive (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestBody StatusUpdate update) {
+        
+        logger.info("Bulk updating transactions to {}, type: {}, status: {}, search: {}, from: {}, to: {}", 
+                update.getStatus(), type, status, search, from, to);
+        
+        return ResponseEntity.ok(
+                transactionService.updateTransactionStatuses(bulkQuery(type, status, search, from, to), update.getStatus()));
+    }
+
+    @DeleteMapping("/bulk")
+    @Operation(summary = "Delete all transactions matching the filters")
+    public ResponseEntity<Map<String, Long>> deleteTransactions(
+            @Parameter(description = "Filter by transaction type")
+            @RequestParam(required = false) TransactionType type,
+            @Parameter(description = "Filter by transaction status")
+            @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Search by transaction ID")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Earliest timestamp, inclusive (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest timestamp, exclusive (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        logger.info("Bulk deleting transactions, type: {}, status: {}, search: {}, from: {}, to: {}", 
+                type, status, search, from, to);
+        
+        long affected = transactionService.deleteTransactions(bulkQuery(type, status, search, from, to));
+        return ResponseEntity.ok(Map.of("affected", affected));
+    }
+
+    private static TransactionQuery bulkQuery(TransactionType type, TransactionStatus status, String search,
+                                              LocalDateTime from, LocalDateTime to) {
+        // Bulk operations take the /paged filters; page and size are not used
+        TransactionQuery query = new TransactionQuery(0, 1, type, status, search);
+        query.setFrom(from);
+        query.setTo(to);
+        return query;
+    }
+
+    @PatchMapping("/{id}/status")
+    @Operation(summary = "Move a transaction to a new status, optionally conditional on its ETag")
+    public ResponseEntity<Transaction> updateTransactionStatus(
+            @Parameter(description = "Transaction ID", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "ETag from a previous read; the change is refused with 412 if the transaction has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody StatusUpdate update) {
+        
+        logger.info("Updating status of transaction {} to {}, If-Match: {}", id, update.getStatus(), ifMatch);
+        
+        if (update.getStatus() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            Transaction updated = transactionService.updateTransactionStatus(id, update.getStatus(), expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(eTag(updated)).body(updated);
+        } catch (InvalidStatusTransitionException e) {
+            logger.error("Rejected status change: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            logger.error("Failed to update transaction status: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static String eTag(Transaction transaction) {
+        return transaction.getVersion() == null ? null : Long.toString(transaction.getVersion());
+    }
+
+    /**
+     * Reads the version out of an If-Match header
+     * @return The version, null for no header or "*", or -1 for a tag that cannot be a version (never matches)
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a transaction")
     public ResponseEntity<Void> deleteTransaction(
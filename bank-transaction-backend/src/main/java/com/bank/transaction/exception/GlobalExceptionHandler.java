@@ -34,6 +34,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    /**
+     * Handles conditional updates made against a stale version (If-Match mismatch)
+     * 
+     * @param e The exception
+     * @return ResponseEntity with standardized error structure and the current ETag
+     */
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflictException(VersionConflictException e) {
+        ErrorResponse response = new ErrorResponse(
+            HttpStatus.PRECONDITION_FAILED.value(),
+            "Precondition Failed",
+            e.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(Long.toString(e.getCurrentVersion()))
+                .body(response);
+    }
+
     /**
      * Handles validation errors from @Valid annotations
      * Returns a map of field names and their validation error messages
@@ -0,0 +1,13 @@
+package com.bank.transaction.exception;
+
+import com.bank.transaction.model.TransactionStatus;
+
+/**
+ * Thrown when a status change is not an allowed transition from the current status
+ */
+public class InvalidStatusTransitionException extends IllegalStateException {
+
+    public InvalidStatusTransitionException(TransactionStatus from, TransactionStatus to) {
+        super("Cannot change status from " + from + " to " + to);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bank.transaction.exception;
+
+/**
+ * Thrown when a conditional update names a version that is no longer current
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public VersionConflictException(long expectedVersion, long currentVersion) {
+        super("Transaction version " + expectedVersion + " is stale, current version is " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
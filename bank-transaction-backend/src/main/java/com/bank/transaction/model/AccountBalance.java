@@ -0,0 +1,19 @@
+package com.bank.transaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Current balance of an account, derived from its transactions
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalance {
+    private String account;                // Account number
+    private BigDecimal balance;            // Net of COMPLETED transactions
+    private BigDecimal pendingBalance;     // Net of transactions still INITIATED, PENDING or PROCESSING
+}
@@ -0,0 +1,25 @@
+package com.bank.transaction.model;
+
+import java.util.Locale;
+
+/**
+ * Dimensions transactions can be grouped by when aggregating
+ */
+public enum AggregateGroup {
+    TYPE,
+    STATUS,
+    DAY;
+
+    /**
+     * Parses a groupBy request value, ignoring case
+     *
+     * @throws IllegalArgumentException for unknown names
+     */
+    public static AggregateGroup of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown groupBy value: " + name);
+        }
+    }
+}
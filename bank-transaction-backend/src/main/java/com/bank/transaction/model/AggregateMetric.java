@@ -0,0 +1,25 @@
+package com.bank.transaction.model;
+
+import java.util.Locale;
+
+/**
+ * Values computed for each aggregate group
+ */
+public enum AggregateMetric {
+    COUNT,
+    SUM,
+    AVG;
+
+    /**
+     * Parses a metric request value, ignoring case
+     *
+     * @throws IllegalArgumentException for unknown names
+     */
+    public static AggregateMetric of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown metric: " + name);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bank.transaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a batch request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;                     // Position of the item in the request (0-based)
+    private Long id;                       // ID of the created transaction, null if rejected
+    private List<String> errors;           // Validation errors, empty if created
+}
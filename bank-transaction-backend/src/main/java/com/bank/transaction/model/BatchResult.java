@@ -0,0 +1,19 @@
+package com.bank.transaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of a batch request: totals plus one result per submitted item, in request order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult {
+    private int accepted;                  // Items that were applied
+    private int rejected;                  // Items that failed validation
+    private List<BatchItemResult> results; // Per-item outcome
+}
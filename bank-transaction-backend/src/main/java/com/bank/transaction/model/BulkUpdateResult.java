@@ -0,0 +1,16 @@
+package com.bank.transaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of a bulk status update
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateResult {
+    private long affected; // Transactions moved to the new status
+    private long skipped;  // Matching transactions whose status cannot move to the new one
+}
@@ -0,0 +1,22 @@
+package com.bank.transaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One status transition in a batch applied by the settlement engine
+ * Applied only if the transaction is still at the expected version
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusChange {
+    private Long id;
+    private Long expectedVersion;          // Version the change was computed from (null for unversioned rows)
+    private TransactionStatus status;      // New status
+    private String bankReference;          // Set when not null
+    private LocalDateTime processingDate;  // Set when not null
+}
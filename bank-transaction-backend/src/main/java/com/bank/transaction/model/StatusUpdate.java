@@ -0,0 +1,15 @@
+package com.bank.transaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Requested status for a single transaction, or for every transaction matched by a bulk update
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusUpdate {
+    private TransactionStatus status;      // New status
+}
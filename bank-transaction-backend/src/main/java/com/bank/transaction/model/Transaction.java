@@ -49,6 +49,9 @@ public class Transaction {
     // Processing date (when the transaction was processed by the bank)
     private LocalDateTime processingDate;
     
+    // Optimistic concurrency version, set to 1 on creation and incremented by every update
+    private Long version;
+    
     public Transaction() {
         this.timestamp = LocalDateTime.now();
     }
@@ -0,0 +1,22 @@
+package com.bank.transaction.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One group of an aggregation over the stored transactions
+ * Group fields the request did not group by, and metrics it did not ask for, are null
+ */
+@Data
+@NoArgsConstructor
+public class TransactionAggregate {
+    private TransactionType type;          // Group type, if grouped by type
+    private TransactionStatus status;      // Group status, if grouped by status
+    private LocalDate day;                 // Group day (UTC), if grouped by day
+    private Long count;                    // Number of transactions in the group
+    private BigDecimal sum;                // Total amount of the group
+    private BigDecimal avg;                // Average amount, rounded half-even to two decimals
+}
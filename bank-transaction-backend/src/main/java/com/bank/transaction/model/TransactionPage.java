@@ -19,6 +19,7 @@ public class TransactionPage {
     private int pageSize;                  // Page size
     private long totalElements;            // Total number of transactions
     private long totalPages;               // Total number of pages
+    private String nextCursor;             // Cursor for the following page, null when there is none
     
     /**
      * Constructor with 4 parameters that automatically calculates total pages
@@ -36,6 +37,19 @@ public class TransactionPage {
         this.totalPages = pageSize > 0 ? (long) Math.ceil((double) totalElements / pageSize) : 0;
     }
     
+    /**
+     * Creates a page for cursor (keyset) pagination
+     * Totals are not computed in this mode and are reported as -1
+     * 
+     * @param content List of transactions for the current page
+     * @param pageSize Page size
+     * @param nextCursor Cursor for the following page, null when this is the last page
+     * @return Cursor page
+     */
+    public static TransactionPage ofCursor(List<Transaction> content, int pageSize, String nextCursor) {
+        return new TransactionPage(content, 0, pageSize, -1, -1, nextCursor);
+    }
+    
     // Convenience methods for pagination logic
     public boolean isFirst() {
         return pageNumber == 0;
@@ -46,7 +60,7 @@ public class TransactionPage {
     }
     
     public boolean hasNext() {
-        return pageNumber < totalPages - 1;
+        return nextCursor != null || pageNumber < totalPages - 1;
     }
     
     public boolean hasPrevious() {
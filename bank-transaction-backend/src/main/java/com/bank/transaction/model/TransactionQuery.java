@@ -0,0 +1,55 @@
+package com.bank.transaction.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters for paged transaction retrieval
+ * Replaces the positional parameter list of the paged service methods
+ */
+@Data
+@NoArgsConstructor
+public class TransactionQuery {
+    private int page = 0;                  // Page number (0-based), ignored in cursor mode
+    private int size = 10;                 // Page size
+    private TransactionType type;          // Transaction type filter (optional)
+    private TransactionStatus status;      // Transaction status filter (optional)
+    private String search;                 // Search text for transaction ID (optional)
+    private String after;                  // Cursor from a previous page (optional), switches to cursor mode
+    private LocalDateTime from;            // Earliest timestamp, inclusive (optional)
+    private LocalDateTime to;              // Latest timestamp, exclusive (optional)
+    
+    /**
+     * Constructor for an offset page query
+     * 
+     * @param page Page number (0-based)
+     * @param size Page size
+     * @param type Transaction type filter (optional)
+     * @param status Transaction status filter (optional)
+     * @param search Search text for transaction ID (optional)
+     */
+    public TransactionQuery(int page, int size, TransactionType type, TransactionStatus status, String search) {
+        this.page = page;
+        this.size = size;
+        this.type = type;
+        this.status = status;
+        this.search = search;
+    }
+    
+    /**
+     * Whether this query resumes from a cursor instead of using page numbers
+     * An empty cursor starts from the newest transaction
+     */
+    public boolean isCursorMode() {
+        return after != null;
+    }
+    
+    /**
+     * Whether the query is restricted to a timestamp window
+     */
+    public boolean hasTimeRange() {
+        return from != null || to != null;
+    }
+}
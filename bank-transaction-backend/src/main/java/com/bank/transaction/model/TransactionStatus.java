@@ -37,5 +37,20 @@ public enum TransactionStatus {
     /**
      * Transaction was cancelled by the user or system
      */
-    CANCELLED
+    CANCELLED;
+    
+    /**
+     * Whether a transaction in this status may move to the given one
+     * INITIATED and PENDING can go on to processing, be rejected/cancelled or fail outright
+     * (e.g. a bulk "mark every PENDING transfer as FAILED"), PROCESSING ends in COMPLETED
+     * or FAILED, and the outcomes are final
+     */
+    public boolean canTransitionTo(TransactionStatus next) {
+        return switch (this) {
+            case INITIATED -> next == PENDING || next == PROCESSING || next == FAILED || next == REJECTED || next == CANCELLED;
+            case PENDING -> next == PROCESSING || next == FAILED || next == REJECTED || next == CANCELLED;
+            case PROCESSING -> next == COMPLETED || next == FAILED;
+            case COMPLETED, FAILED, REJECTED, CANCELLED -> false;
+        };
+    }
 } 
\ No newline at end of file
@@ -1,10 +1,21 @@
 package com.bank.transaction.service;
 
+import com.bank.transaction.model.AccountBalance;
+import com.bank.transaction.model.AggregateGroup;
+import com.bank.transaction.model.AggregateMetric;
+import com.bank.transaction.model.BulkUpdateResult;
+import com.bank.transaction.model.StatusChange;
 import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionAggregate;
+import com.bank.transaction.model.TransactionPage;
+import com.bank.transaction.model.TransactionQuery;
 import com.bank.transaction.model.TransactionType;
 import com.bank.transaction.model.TransactionStatus;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service interface for transaction management
@@ -19,6 +30,15 @@ public interface TransactionService {
      */
     Transaction createTransaction(Transaction transaction);
     
+    /**
+     * Creates several transactions with one ID reservation and one durability wait
+     * Items are expected to be validated already
+     * 
+     * @param transactions Transactions to create
+     * @return Created transactions with IDs, in the same order
+     */
+    List<Transaction> createTransactions(List<Transaction> transactions);
+    
     /**
      * Retrieves a transaction by ID
      * 
@@ -27,6 +47,14 @@ public interface TransactionService {
      */
     Transaction getTransaction(Long id);
     
+    /**
+     * Retrieves transactions by ID, bypassing the read cache
+     * 
+     * @param ids Transaction IDs
+     * @return The transactions that exist, in the order of the IDs
+     */
+    List<Transaction> getTransactionsById(List<Long> ids);
+    
     /**
      * Retrieves all transactions
      * 
@@ -34,6 +62,15 @@ public interface TransactionService {
      */
     List<Transaction> getAllTransactions();
     
+    /**
+     * Streams the transactions matching a query's filters, newest first, without materializing them
+     * Page number and size are ignored; the caller must close the stream
+     * 
+     * @param query Type, status, search and time-range filters
+     * @return Lazy stream of matching transactions
+     */
+    Stream<Transaction> streamTransactions(TransactionQuery query);
+    
     /**
      * Retrieves transactions with pagination and filtering
      * 
@@ -49,6 +86,22 @@ public interface TransactionService {
                                           TransactionStatus status,
                                           String search);
     
+    /**
+     * Runs a paged, filtered query and returns the page together with its total
+     * With a search term or time window both come from a single evaluation of the filters.
+     * Otherwise the total is read from the live counters apart from the page, so it is
+     * approximate: a write landing in between is counted but may not be on the page, or the
+     * other way round
+     * When the query carries a cursor, the page resumes from the last seen (timestamp, ID) position
+     * instead: its cost does not grow with depth, it does not shift under concurrent inserts,
+     * and totals are reported as -1
+     * 
+     * @param query Paging, filter and cursor parameters
+     * @return Page with the transactions, the total (offset mode) and the cursor for the following page
+     * @throws IllegalArgumentException if the cursor is malformed or the paging parameters are invalid
+     */
+    TransactionPage queryTransactions(TransactionQuery query);
+    
     /**
      * Gets the total count of transactions matching filters
      * 
@@ -59,15 +112,55 @@ public interface TransactionService {
      */
     long getTransactionCount(TransactionType type, TransactionStatus status, String search);
     
+    /**
+     * Gets the number of transactions for every type and status combination
+     * 
+     * @return Count per transaction type, then per transaction status
+     */
+    Map<TransactionType, Map<TransactionStatus, Long>> getTransactionCountsByTypeAndStatus();
+    
+    /**
+     * Aggregates all stored transactions by the requested dimensions
+     * 
+     * @param groupBy Dimensions to group by; empty for a single overall row
+     * @param metrics Metrics to compute per group
+     * @return One row per non-empty group
+     */
+    List<TransactionAggregate> aggregateTransactions(Set<AggregateGroup> groupBy, Set<AggregateMetric> metrics);
+    
+    /**
+     * Retrieves the transactions of one account (as source or destination), newest first
+     * Pages are cursor-based; totals are reported as -1
+     * 
+     * @param account Account number
+     * @param size Page size
+     * @param after Cursor from the previous page's nextCursor (optional)
+     * @return Page with the transactions and the cursor for the following page
+     * @throws IllegalArgumentException if the cursor is malformed or the page size is invalid
+     */
+    TransactionPage getAccountTransactions(String account, int size, String after);
+    
+    /**
+     * Gets the current balance of an account
+     * 
+     * @param account Account number
+     * @return Settled and pending balance, or null if no transaction involves the account
+     */
+    AccountBalance getAccountBalance(String account);
+    
     /**
      * Updates an existing transaction
+     * A status change follows the same lifecycle as {@link #updateTransactionStatus}
      * 
      * @param id Transaction ID
      * @param transaction Updated transaction data
-     * @return Updated transaction
+     * @param expectedVersion Version the caller last saw, or null for an unconditional update
+     * @return Updated transaction, with its version incremented
      * @throws IllegalArgumentException if transaction doesn't exist
+     * @throws com.bank.transaction.exception.InvalidStatusTransitionException if the status change is not allowed
+     * @throws com.bank.transaction.exception.VersionConflictException if the version is no longer current
      */
-    Transaction updateTransaction(Long id, Transaction transaction);
+    Transaction updateTransaction(Long id, Transaction transaction, Long expectedVersion);
     
     /**
      * Deletes a transaction
@@ -76,4 +169,48 @@ public interface TransactionService {
      * @throws IllegalArgumentException if transaction doesn't exist
      */
     void deleteTransaction(Long id);
+    
+    /**
+     * Moves a transaction to a new status
+     * 
+     * @param id Transaction ID
+     * @param status New status, which must be a valid transition from the current one
+     * @param expectedVersion Version the caller last saw, or null for an unconditional change
+     * @return The updated transaction, with its version incremented
+     * @throws IllegalArgumentException if the transaction doesn't exist
+     * @throws com.bank.transaction.exception.InvalidStatusTransitionException if the transition is not allowed
+     * @throws com.bank.transaction.exception.VersionConflictException if the version is no longer current
+     */
+    Transaction updateTransactionStatus(Long id, TransactionStatus status, Long expectedVersion);
+    
+    /**
+     * Sets the status of every transaction matching the query filters
+     * Transactions whose current status cannot make the transition are skipped, as
+     * {@link #updateTransactionStatus} would reject them
+     * 
+     * @param query Type, status, search and time-range filters; at least one is required
+     * @param status New status
+     * @return Number of transactions updated and skipped
+     * @throws IllegalArgumentException if no filter is given
+     */
+    BulkUpdateResult updateTransactionStatuses(TransactionQuery query, TransactionStatus status);
+    
+    /**
+     * Applies a batch of status transitions in one write
+     * A change is skipped if its transaction is gone, has moved past the expected version,
+     * or cannot make the transition from its current status
+     * 
+     * @param changes Changes to apply
+     * @return The transactions that were changed, as stored
+     */
+    List<Transaction> applyStatusChanges(List<StatusChange> changes);
+    
+    /**
+     * Deletes every transaction matching the query filters
+     * 
+     * @param query Type, status, search and time-range filters; at least one is required
+     * @return Number of transactions deleted
+     * @throws IllegalArgumentException if no filter is given
+     */
+    long deleteTransactions(TransactionQuery query);
 } 
\ No newline at end of file
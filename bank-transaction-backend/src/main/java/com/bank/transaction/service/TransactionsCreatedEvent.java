@@ -0,0 +1,13 @@
+package com.bank.transaction.service;
+
+import com.bank.transaction.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Published after transactions are durably created, once per create call
+ *
+ * @param transactions The created transactions, as stored
+ */
+public record TransactionsCreatedEvent(List<Transaction> transactions) {
+}
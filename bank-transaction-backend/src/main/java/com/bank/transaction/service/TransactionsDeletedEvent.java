@@ -0,0 +1,13 @@
+package com.bank.transaction.service;
+
+import com.bank.transaction.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Published after transactions are durably deleted, once per delete call
+ *
+ * @param transactions The deleted transactions, as last stored
+ */
+public record TransactionsDeletedEvent(List<Transaction> transactions) {
+}
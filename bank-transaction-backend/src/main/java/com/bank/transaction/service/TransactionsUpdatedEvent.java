@@ -0,0 +1,14 @@
+package com.bank.transaction.service;
+
+import com.bank.transaction.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Published after existing transactions are durably changed, once per update call
+ *
+ * @param previous The transactions as stored before the change, in the same order
+ * @param transactions The changed transactions, as stored
+ */
+public record TransactionsUpdatedEvent(List<Transaction> previous, List<Transaction> transactions) {
+}
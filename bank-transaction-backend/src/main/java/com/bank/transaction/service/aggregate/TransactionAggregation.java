@@ -0,0 +1,287 @@
+package com.bank.transaction.service.aggregate;
+
+import com.bank.transaction.model.AggregateGroup;
+import com.bank.transaction.model.AggregateMetric;
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionAggregate;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.util.MoneyUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+
+/**
+ * Groups transactions and computes count/sum/average per group in one parallel pass
+ * The ID snapshot is split recursively on the fork-join pool; each leaf accumulates
+ * into its own primitive table (amounts as long minor units), and partial tables are
+ * merged pairwise as the tasks join, so no state is shared between threads.
+ * A group sum that outgrows a long carries into a BigInteger instead of failing.
+ */
+public final class TransactionAggregation {
+
+    // Leaf size below which a task stops forking
+    private static final int LEAF_SIZE = 8192;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private static final long NULL_DAY = Long.MIN_VALUE;
+
+    private final LongFunction<Transaction> lookup;
+    private final boolean byType;
+    private final boolean byStatus;
+    private final boolean byDay;
+
+    /**
+     * @param lookup Resolves an ID to its stored transaction, or null if it was removed meanwhile
+     * @param groupBy Dimensions to group by; empty for one overall group
+     */
+    public TransactionAggregation(LongFunction<Transaction> lookup, Set<AggregateGroup> groupBy) {
+        this.lookup = lookup;
+        this.byType = groupBy.contains(AggregateGroup.TYPE);
+        this.byStatus = groupBy.contains(AggregateGroup.STATUS);
+        this.byDay = groupBy.contains(AggregateGroup.DAY);
+    }
+
+    /**
+     * Aggregates the transactions behind a set of IDs
+     *
+     * @param ids IDs to aggregate
+     * @param metrics Metrics to fill in
+     * @return One row per non-empty group, ordered by type, status and day
+     */
+    public List<TransactionAggregate> run(long[] ids, Set<AggregateMetric> metrics) {
+        GroupTable totals = ForkJoinPool.commonPool().invoke(new Task(ids, 0, ids.length));
+        if (totals.size == 0 && !byType && !byStatus && !byDay) {
+            // An overall aggregate always has its single row, even over nothing
+            totals.slot(0, 0);
+        }
+
+        List<TransactionAggregate> rows = new ArrayList<>(totals.size);
+        for (int i = 0; i < totals.capacity(); i++) {
+            if (totals.used[i]) {
+                rows.add(toRow(totals, i, metrics));
+            }
+        }
+        rows.sort(Comparator.comparing(TransactionAggregate::getType, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(TransactionAggregate::getStatus, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(TransactionAggregate::getDay, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return rows;
+    }
+
+    private TransactionAggregate toRow(GroupTable totals, int slot, Set<AggregateMetric> metrics) {
+        TransactionAggregate row = new TransactionAggregate();
+        int cell = totals.cells[slot];
+        long day = totals.days[slot];
+        row.setType(byType && cell / 16 > 0 ? TYPES[cell / 16 - 1] : null);
+        row.setStatus(byStatus && cell % 16 > 0 ? STATUSES[cell % 16 - 1] : null);
+        row.setDay(byDay && day != NULL_DAY ? LocalDate.ofEpochDay(day) : null);
+
+        long amounts = totals.amounts[slot];
+        BigDecimal sum = totals.sum(slot);
+        if (metrics.contains(AggregateMetric.COUNT)) {
+            row.setCount(totals.counts[slot]);
+        }
+        if (metrics.contains(AggregateMetric.SUM)) {
+            row.setSum(sum);
+        }
+        if (metrics.contains(AggregateMetric.AVG) && amounts > 0) {
+            row.setAvg(sum
+                    .divide(BigDecimal.valueOf(amounts), MoneyUtils.MINOR_UNIT_SCALE, RoundingMode.HALF_EVEN));
+        }
+        return row;
+    }
+
+    private void accumulate(GroupTable table, Transaction transaction) {
+        int cell = 0;
+        if (byType && transaction.getType() != null) {
+            cell = (transaction.getType().ordinal() + 1) * 16;
+        }
+        if (byStatus && transaction.getStatus() != null) {
+            cell += transaction.getStatus().ordinal() + 1;
+        }
+        long day = 0;
+        if (byDay) {
+            day = transaction.getTimestamp() != null ? transaction.getTimestamp().toLocalDate().toEpochDay() : NULL_DAY;
+        }
+
+        int slot = table.slot(cell, day);
+        table.counts[slot]++;
+        if (transaction.getAmount() != null) {
+            table.amounts[slot]++;
+            long minorUnits;
+            try {
+                minorUnits = MoneyUtils.toMinorUnits(transaction.getAmount());
+            } catch (ArithmeticException e) {
+                table.carry(slot, transaction.getAmount()
+                        .setScale(MoneyUtils.MINOR_UNIT_SCALE, RoundingMode.HALF_EVEN).unscaledValue());
+                return;
+            }
+            table.add(slot, minorUnits);
+        }
+    }
+
+    /**
+     * Aggregates one range of the ID snapshot, forking while the range is large
+     */
+    private final class Task extends RecursiveTask<GroupTable> {
+        private final long[] ids;
+        private final int from;
+        private final int to;
+
+        Task(long[] ids, int from, int to) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected GroupTable compute() {
+            if (to - from <= LEAF_SIZE) {
+                GroupTable table = new GroupTable();
+                for (int i = from; i < to; i++) {
+                    Transaction transaction = lookup.apply(ids[i]);
+                    if (transaction != null) {
+                        accumulate(table, transaction);
+                    }
+                }
+                return table;
+            }
+            int middle = (from + to) >>> 1;
+            Task left = new Task(ids, from, middle);
+            left.fork();
+            GroupTable right = new Task(ids, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Open-addressing table of per-group primitive totals, keyed by (type/status cell, day)
+     * Confined to one task at a time, so it needs no synchronization
+     */
+    private static final class GroupTable {
+        private int[] cells = new int[16];
+        private long[] days = new long[16];
+        private boolean[] used = new boolean[16];
+        private long[] counts = new long[16];
+        private long[] amounts = new long[16];
+        private long[] sums = new long[16];
+        // Part of a sum that no longer fits in its long, in minor units; null until needed
+        private BigInteger[] carries = new BigInteger[16];
+        private int size;
+
+        int capacity() {
+            return used.length;
+        }
+
+        /**
+         * Finds the slot of a group, adding it if absent
+         */
+        int slot(int cell, long day) {
+            if ((size + 1) * 2 > used.length) {
+                grow();
+            }
+            int mask = used.length - 1;
+            for (int i = hash(cell, day) & mask; ; i = (i + 1) & mask) {
+                if (!used[i]) {
+                    used[i] = true;
+                    cells[i] = cell;
+                    days[i] = day;
+                    size++;
+                    return i;
+                }
+                if (cells[i] == cell && days[i] == day) {
+                    return i;
+                }
+            }
+        }
+
+        /**
+         * Adds minor units to a group's sum, carrying the sum into a BigInteger if it would overflow
+         */
+        void add(int slot, long minorUnits) {
+            try {
+                sums[slot] = Math.addExact(sums[slot], minorUnits);
+            } catch (ArithmeticException e) {
+                carry(slot, BigInteger.valueOf(sums[slot]).add(BigInteger.valueOf(minorUnits)));
+                sums[slot] = 0;
+            }
+        }
+
+        void carry(int slot, BigInteger minorUnits) {
+            carries[slot] = carries[slot] == null ? minorUnits : carries[slot].add(minorUnits);
+        }
+
+        /**
+         * Sum of a group as an amount
+         */
+        BigDecimal sum(int slot) {
+            if (carries[slot] == null) {
+                return MoneyUtils.fromMinorUnits(sums[slot]);
+            }
+            return new BigDecimal(carries[slot].add(BigInteger.valueOf(sums[slot])), MoneyUtils.MINOR_UNIT_SCALE);
+        }
+
+        /**
+         * Adds another partial table into this one
+         */
+        GroupTable merge(GroupTable other) {
+            for (int i = 0; i < other.used.length; i++) {
+                if (other.used[i]) {
+                    int slot = slot(other.cells[i], other.days[i]);
+                    counts[slot] += other.counts[i];
+                    amounts[slot] += other.amounts[i];
+                    add(slot, other.sums[i]);
+                    if (other.carries[i] != null) {
+                        carry(slot, other.carries[i]);
+                    }
+                }
+            }
+            return this;
+        }
+
+        private void grow() {
+            int[] oldCells = cells;
+            long[] oldDays = days;
+            boolean[] oldUsed = used;
+            long[] oldCounts = counts;
+            long[] oldAmounts = amounts;
+            long[] oldSums = sums;
+            BigInteger[] oldCarries = carries;
+
+            int capacity = oldUsed.length * 2;
+            cells = new int[capacity];
+            days = new long[capacity];
+            used = new boolean[capacity];
+            counts = new long[capacity];
+            amounts = new long[capacity];
+            sums = new long[capacity];
+            carries = new BigInteger[capacity];
+            size = 0;
+            for (int i = 0; i < oldUsed.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slot(oldCells[i], oldDays[i]);
+                    counts[slot] = oldCounts[i];
+                    amounts[slot] = oldAmounts[i];
+                    sums[slot] = oldSums[i];
+                    carries[slot] = oldCarries[i];
+                }
+            }
+        }
+
+        private static int hash(int cell, long day) {
+            long hash = (day * 31 + cell) * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+}
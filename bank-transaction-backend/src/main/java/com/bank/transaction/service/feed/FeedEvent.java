@@ -0,0 +1,22 @@
+package com.bank.transaction.service.feed;
+
+/**
+ * One server-sent event waiting for a subscriber
+ *
+ * @param name Event name, or null for a keep-alive comment
+ * @param data JSON payload
+ */
+record FeedEvent(String name, String data) {
+
+    static final String CREATED = "created";
+    static final String UPDATED = "updated";
+    static final String DELETED = "deleted";
+    static final String RESET = "reset";
+
+    /**
+     * Tells the client to reload: events were coalesced away after it fell behind
+     */
+    static final FeedEvent RESET_EVENT = new FeedEvent(RESET, "{}");
+
+    static final FeedEvent PING = new FeedEvent(null, null);
+}
@@ -0,0 +1,156 @@
+package com.bank.transaction.service.feed;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * One open event stream and the events not yet written to it
+ *
+ * Pending events are keyed by transaction ID, so repeated changes to a transaction collapse
+ * into its latest state. When more than maxPending transactions are waiting, they are all
+ * replaced by a single reset event. An idle subscriber holds no buffer.
+ */
+final class FeedSubscriber {
+
+    private final SseEmitter emitter;
+    private final TransactionType type;
+    private final TransactionStatus status;
+    private final int maxPending;
+
+    private LinkedHashMap<Long, FeedEvent> pending;
+    private boolean reset;
+    private boolean ping;
+    private boolean scheduled;
+
+    // System.nanoTime() when the current write started, 0 when not writing
+    private volatile long sendingSince;
+    // Thread doing the current write, null when not writing
+    private volatile Thread sender;
+
+    FeedSubscriber(SseEmitter emitter, TransactionType type, TransactionStatus status, int maxPending) {
+        this.emitter = emitter;
+        this.type = type;
+        this.status = status;
+        this.maxPending = maxPending;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean matches(Transaction transaction) {
+        return (type == null || transaction.getType() == type)
+                && (status == null || transaction.getStatus() == status);
+    }
+
+    /**
+     * Queues an event for a transaction, merging it with one already queued for the same ID
+     *
+     * @return true if the caller must schedule a drain
+     */
+    synchronized boolean offer(long id, FeedEvent event) {
+        if (reset) {
+            // The client reloads anyway
+            return false;
+        }
+        if (pending == null) {
+            pending = new LinkedHashMap<>();
+        }
+        FeedEvent queued = pending.get(id);
+        if (queued == null && pending.size() >= maxPending) {
+            pending = null;
+            reset = true;
+        } else if (queued != null && FeedEvent.CREATED.equals(queued.name())) {
+            // The client has not seen the transaction yet: it stays a creation, or never appears
+            if (FeedEvent.DELETED.equals(event.name())) {
+                pending.remove(id);
+            } else {
+                pending.put(id, new FeedEvent(FeedEvent.CREATED, event.data()));
+            }
+        } else {
+            pending.put(id, event);
+        }
+        return schedule();
+    }
+
+    /**
+     * Replaces everything pending with a reset event
+     *
+     * @return true if the caller must schedule a drain
+     */
+    synchronized boolean reset() {
+        pending = null;
+        reset = true;
+        return schedule();
+    }
+
+    /**
+     * Asks for a keep-alive comment, sent only if nothing else is pending
+     *
+     * @return true if the caller must schedule a drain
+     */
+    synchronized boolean ping() {
+        ping = true;
+        return schedule();
+    }
+
+    /**
+     * Takes everything pending, or marks the subscriber idle if there is nothing left
+     *
+     * @return Events to write, or null once idle
+     */
+    synchronized List<FeedEvent> take() {
+        List<FeedEvent> events;
+        if (reset) {
+            events = List.of(FeedEvent.RESET_EVENT);
+        } else if (pending != null && !pending.isEmpty()) {
+            events = new ArrayList<>(pending.values());
+        } else if (ping) {
+            events = List.of(FeedEvent.PING);
+        } else {
+            scheduled = false;
+            return null;
+        }
+        pending = null;
+        reset = false;
+        ping = false;
+        return events;
+    }
+
+    /**
+     * Marks the calling thread as writing since now, or done writing when now is 0
+     */
+    void sending(long now) {
+        sender = now != 0 ? Thread.currentThread() : null;
+        sendingSince = now;
+    }
+
+    void interruptSender() {
+        Thread thread = sender;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Whether a single write has been blocked for longer than the timeout
+     */
+    boolean isStuck(long now, long timeoutNanos) {
+        long since = sendingSince;
+        return since != 0 && now - since > timeoutNanos;
+    }
+
+    private boolean schedule() {
+        if (scheduled) {
+            return false;
+        }
+        scheduled = true;
+        return true;
+    }
+}
@@ -0,0 +1,325 @@
+package com.bank.transaction.service.feed;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.service.TransactionsCreatedEvent;
+import com.bank.transaction.service.TransactionsDeletedEvent;
+import com.bank.transaction.service.TransactionsUpdatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live feed of created, updated and deleted transactions for Server-Sent Events subscribers
+ *
+ * Service events are only queued on the writing thread; a dispatcher thread fans them out to
+ * the subscribers whose type/status filter matches, serializing each transaction once. An
+ * update that moves a transaction out of a subscriber's filter is sent to it as a deletion.
+ * Each drain runs on its own virtual thread, so an idle subscriber costs no thread and a
+ * subscriber whose client stopped reading blocks only the write to its own stream.
+ *
+ * A subscriber that falls behind has its events coalesced (see {@link FeedSubscriber}) and,
+ * past transaction.feed.max-pending, replaced by one reset event telling it to reload. A
+ * subscriber whose write stays blocked for longer than transaction.feed.send-timeout is dropped
+ * and its sender interrupted; EventSource clients reconnect by themselves.
+ */
+@Component
+public class TransactionFeed implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionFeed.class);
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+    private final Set<FeedSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ArrayBlockingQueue<Object> events;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public TransactionFeed(ObjectMapper objectMapper,
+                           @Value("${transaction.feed.timeout:PT30M}") Duration timeout,
+                           @Value("${transaction.feed.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${transaction.feed.max-pending:1000}") int maxPending,
+                           @Value("${transaction.feed.queue-capacity:4096}") int queueCapacity,
+                           @Value("${transaction.feed.send-timeout:PT10S}") Duration sendTimeout) {
+        if (maxPending < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Feed pending limit and queue capacity must be at least 1");
+        }
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        this.maxPending = maxPending;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.events = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = new Thread(this::dispatch, "transaction-feed");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Opens a stream of changes to transactions matching the filters
+     *
+     * @param type Type filter, or null for all
+     * @param status Status filter, or null for all
+     * @return The stream, or null if the subscriber limit is reached
+     */
+    public SseEmitter subscribe(TransactionType type, TransactionStatus status) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(emitter, type, status);
+        return emitter;
+    }
+
+    FeedSubscriber register(SseEmitter emitter, TransactionType type, TransactionStatus status) {
+        FeedSubscriber subscriber = new FeedSubscriber(emitter, type, status, maxPending);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return subscriber;
+    }
+
+    /**
+     * Open streams
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onCreated(TransactionsCreatedEvent event) {
+        enqueue(event);
+    }
+
+    @EventListener
+    public void onUpdated(TransactionsUpdatedEvent event) {
+        enqueue(event);
+    }
+
+    @EventListener
+    public void onDeleted(TransactionsDeletedEvent event) {
+        enqueue(event);
+    }
+
+    /**
+     * Keeps idle streams alive through proxies, and drops subscribers stuck on a write
+     */
+    @Scheduled(fixedDelayString = "${transaction.feed.heartbeat-interval:PT30S}",
+            initialDelayString = "${transaction.feed.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (FeedSubscriber subscriber : subscribers) {
+            if (subscriber.isStuck(now, sendTimeoutNanos)) {
+                drop(subscriber);
+            } else if (subscriber.ping()) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        subscribers.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transaction.feed.subscribers", this, TransactionFeed::subscriberCount)
+                .description("Open live feed streams")
+                .register(registry);
+        FunctionCounter.builder("transaction.feed.sent", sent, LongAdder::sum)
+                .description("Events written to live feed streams")
+                .register(registry);
+        FunctionCounter.builder("transaction.feed.resets", resets, LongAdder::sum)
+                .description("Times a subscriber fell behind and was told to reload")
+                .register(registry);
+        FunctionCounter.builder("transaction.feed.dropped", dropped, LongAdder::sum)
+                .description("Subscribers closed because a write stayed blocked")
+                .register(registry);
+    }
+
+    private void enqueue(Object event) {
+        // With no subscribers, writers pay nothing beyond this check
+        if (!subscribers.isEmpty() && !events.offer(event)) {
+            overflowed.set(true);
+        }
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                Object event = events.poll(1, TimeUnit.SECONDS);
+                if (overflowed.getAndSet(false)) {
+                    // Events were lost, so nobody's view can be patched up any more
+                    events.clear();
+                    subscribers.forEach(this::reset);
+                    continue;
+                }
+                if (event != null) {
+                    fanOut(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Live feed dispatch failed: {}", e.getMessage());
+                subscribers.forEach(this::reset);
+            }
+        }
+    }
+
+    private void fanOut(Object event) {
+        if (event instanceof TransactionsCreatedEvent created) {
+            for (Transaction transaction : created.transactions()) {
+                fanOut(FeedEvent.CREATED, transaction, null);
+            }
+        } else if (event instanceof TransactionsUpdatedEvent updated) {
+            for (int i = 0; i < updated.transactions().size(); i++) {
+                fanOut(FeedEvent.UPDATED, updated.transactions().get(i), updated.previous().get(i));
+            }
+        } else if (event instanceof TransactionsDeletedEvent deleted) {
+            for (Transaction transaction : deleted.transactions()) {
+                fanOut(FeedEvent.DELETED, null, transaction);
+            }
+        }
+    }
+
+    /**
+     * Offers one change to every subscriber that sees it
+     *
+     * @param current The transaction after the change, null when deleted
+     * @param previous The transaction before the change, null when created
+     */
+    private void fanOut(String name, Transaction current, Transaction previous) {
+        long id = current != null ? current.getId() : previous.getId();
+        FeedEvent changed = null;
+        FeedEvent removed = null;
+        for (FeedSubscriber subscriber : subscribers) {
+            FeedEvent event;
+            if (current != null && subscriber.matches(current)) {
+                if (changed == null) {
+                    changed = new FeedEvent(name, toJson(current));
+                }
+                event = changed;
+            } else if (previous != null && subscriber.matches(previous)) {
+                if (removed == null) {
+                    removed = new FeedEvent(FeedEvent.DELETED, toJson(Map.of("id", id)));
+                }
+                event = removed;
+            } else {
+                continue;
+            }
+            if (subscriber.offer(id, event)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void reset(FeedSubscriber subscriber) {
+        if (subscriber.reset()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(FeedSubscriber subscriber) {
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RuntimeException e) {
+            // Shutting down
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * Writes a subscriber's pending events until it has none left
+     */
+    private void drain(FeedSubscriber subscriber) {
+        List<FeedEvent> batch;
+        while ((batch = subscriber.take()) != null) {
+            try {
+                for (FeedEvent event : batch) {
+                    subscriber.sending(System.nanoTime());
+                    subscriber.emitter().send(event.name() == null
+                            ? SseEmitter.event().comment("ping")
+                            : SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                    sent.increment();
+                    if (event == FeedEvent.RESET_EVENT) {
+                        resets.increment();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, or was dropped; the container completes the emitter
+                subscribers.remove(subscriber);
+                return;
+            } finally {
+                subscriber.sending(0);
+            }
+        }
+    }
+
+    private void drop(FeedSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            dropped.increment();
+            logger.warn("Dropping live feed subscriber blocked on a write for over {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            subscriber.emitter().complete();
+            // complete() cannot unblock the write itself; the interrupt aborts it where the
+            // container allows, and otherwise only this subscriber's virtual thread waits
+            subscriber.interruptSender();
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize feed event", e);
+        }
+    }
+}
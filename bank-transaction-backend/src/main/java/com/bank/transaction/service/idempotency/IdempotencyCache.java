@@ -0,0 +1,150 @@
+package com.bank.transaction.service.idempotency;
+
+import com.bank.transaction.exception.IdempotencyKeyReuseException;
+import com.bank.transaction.model.Transaction;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the transaction created for each Idempotency-Key, so client retries replay it
+ *
+ * Keys are scoped by client, so two clients choosing the same key do not see each other's
+ * transactions. Each entry keeps a fingerprint of the request body that created it; a retry
+ * with a different body is refused rather than answered with the first response.
+ *
+ * Entries expire transaction.idempotency.ttl after creation, and the cache is bounded by an
+ * estimate of its memory use (transaction.idempotency.max-memory). A key maps to a future while
+ * its creation is in flight, so concurrent retries wait for the first request instead of
+ * creating again. Failed creations are not remembered: the next request with the key tries again.
+ */
+@Component
+public class IdempotencyCache {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyCache.class);
+
+    /**
+     * Longest accepted key, in characters
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    // Rough size of a cached Transaction and its map entry, excluding string contents
+    private static final int ENTRY_OVERHEAD_BYTES = 320;
+
+    private final AsyncCache<Scope, Response> responses;
+
+    public IdempotencyCache(@Value("${transaction.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${transaction.idempotency.max-memory:64MB}") DataSize maxMemory) {
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxMemory.toBytes())
+                .weigher(IdempotencyCache::weigh)
+                .buildAsync();
+        logger.info("Idempotency cache initialized with TTL {} and {} budget", ttl, maxMemory);
+    }
+
+    /**
+     * Result of a keyed creation
+     *
+     * @param transaction The created transaction
+     * @param replayed Whether it was created by an earlier request with the same key
+     */
+    public record Outcome(Transaction transaction, boolean replayed) {
+    }
+
+    // A key as chosen by one client
+    private record Scope(String client, String key) {
+    }
+
+    // The created transaction and the fingerprint of the body that created it
+    private record Response(String fingerprint, Transaction transaction) {
+    }
+
+    /**
+     * Returns the transaction created for a client's key, running the creation only if there is none
+     *
+     * @param client Client the key belongs to
+     * @param key Idempotency key
+     * @param fingerprint Fingerprint of the request body, see {@link #fingerprint(byte[])}
+     * @param creation Creates the transaction; its exceptions are rethrown
+     * @return The transaction and whether it was replayed
+     * @throws IllegalArgumentException if the key is blank or longer than {@link #MAX_KEY_LENGTH}
+     * @throws IdempotencyKeyReuseException if the key was used with a different fingerprint
+     */
+    public Outcome getOrCreate(String client, String key, String fingerprint, Supplier<Transaction> creation) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Scope scope = new Scope(client, key);
+        while (true) {
+            CompletableFuture<Response> pending = new CompletableFuture<>();
+            CompletableFuture<Response> existing = responses.asMap().putIfAbsent(scope, pending);
+            if (existing == null) {
+                return new Outcome(create(scope, fingerprint, pending, creation), false);
+            }
+            Response response;
+            try {
+                response = existing.join();
+            } catch (CompletionException | CancellationException e) {
+                // The request we waited for failed and left nothing behind; try on our own
+                responses.asMap().remove(scope, existing);
+                continue;
+            }
+            if (!Objects.equals(response.fingerprint(), fingerprint)) {
+                throw new IdempotencyKeyReuseException(key);
+            }
+            logger.info("Replaying transaction {} for Idempotency-Key {}", response.transaction().getId(), key);
+            return new Outcome(response.transaction(), true);
+        }
+    }
+
+    /**
+     * Fingerprint of a request body: its SHA-256 digest in hex
+     */
+    public static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Transaction create(Scope scope, String fingerprint, CompletableFuture<Response> pending,
+                               Supplier<Transaction> creation) {
+        try {
+            Transaction transaction = creation.get();
+            pending.complete(new Response(fingerprint, transaction));
+            return transaction;
+        } catch (RuntimeException | Error e) {
+            responses.asMap().remove(scope, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static int weigh(Scope scope, Response response) {
+        Transaction transaction = response.transaction();
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * (scope.client().length() + scope.key().length()
+                + length(response.fingerprint())
+                + length(transaction.getDescription()) + length(transaction.getSourceAccount())
+                + length(transaction.getDestinationAccount()) + length(transaction.getBankReference()));
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
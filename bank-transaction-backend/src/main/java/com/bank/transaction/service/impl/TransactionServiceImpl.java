@@ -1,48 +1,261 @@
 package com.bank.transaction.service.impl;
 
+import com.bank.transaction.exception.InvalidStatusTransitionException;
+import com.bank.transaction.exception.VersionConflictException;
+import com.bank.transaction.model.AccountBalance;
+import com.bank.transaction.model.AggregateGroup;
+import com.bank.transaction.model.AggregateMetric;
+import com.bank.transaction.model.BulkUpdateResult;
+import com.bank.transaction.model.StatusChange;
 import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionAggregate;
+import com.bank.transaction.model.TransactionPage;
+import com.bank.transaction.model.TransactionQuery;
 import com.bank.transaction.model.TransactionType;
 import com.bank.transaction.model.TransactionStatus;
 import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.service.TransactionsCreatedEvent;
+import com.bank.transaction.service.TransactionsDeletedEvent;
+import com.bank.transaction.service.TransactionsUpdatedEvent;
+import com.bank.transaction.service.aggregate.TransactionAggregation;
+import com.bank.transaction.service.index.AccountBalances;
+import com.bank.transaction.service.index.AccountIndex;
+import com.bank.transaction.service.index.IdSearchIndex;
+import com.bank.transaction.service.index.TransactionCounters;
+import com.bank.transaction.service.index.TransactionIndex;
+import com.bank.transaction.service.index.TransactionKey;
+import com.bank.transaction.service.persistence.SnapshotManager;
+import com.bank.transaction.service.persistence.WalRecord;
+import com.bank.transaction.service.persistence.WriteAheadLog;
+import com.bank.transaction.service.store.StringDictionary;
+import com.bank.transaction.service.store.TransactionStore;
+import com.bank.transaction.util.DateTimeUtils;
+import com.bank.transaction.util.MoneyUtils;
 import com.bank.transaction.util.SnowflakeIdGenerator;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementation of the TransactionService interface
- * Provides in-memory storage and caching for bank transactions
+ * Provides in-memory storage (through a pluggable TransactionStore) and caching for bank transactions
  */
 @Service
 public class TransactionServiceImpl implements TransactionService {
     private static final Logger logger = LoggerFactory.getLogger(TransactionServiceImpl.class);
     
-    // Thread-safe map to store transactions in memory
-    private final Map<Long, Transaction> transactionStore = new ConcurrentHashMap<>();
+    // Storage engine selected by transaction.store.engine (heap by default)
+    @Autowired
+    private TransactionStore transactionStore;
+    
+    // Time-ordered primary index plus type/status posting sets, kept in sync with the store on every write
+    private final TransactionIndex transactionIndex = new TransactionIndex();
+    
+    // Per type x status counts, so totals without a search term never walk the store
+    private final TransactionCounters transactionCounters = new TransactionCounters();
+    
+    // Digit trigram index over the IDs, used to resolve the search term
+    private final IdSearchIndex idSearchIndex = new IdSearchIndex();
+    
+    // Codes for account numbers, so account indexes compare ints instead of strings
+    private final StringDictionary accountCodes = new StringDictionary();
+    
+    // Time-ordered history per source/destination account
+    private final AccountIndex accountIndex = new AccountIndex(accountCodes);
+    
+    // Settled and pending balance per account, updated on every write
+    private final AccountBalances accountBalances = new AccountBalances(accountCodes);
     
     @Autowired
     private SnowflakeIdGenerator idGenerator;
+    
+    // Durability for every write; a no-op unless transaction.wal.enabled is set
+    @Autowired
+    private WriteAheadLog writeAheadLog;
+    
+    @Autowired
+    private SnapshotManager snapshotManager;
+    
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+    
+    // Writers hold the read side around compute(); a snapshot takes the write side only
+    // long enough to read an LSN whose changes are all applied to the store
+    private final ReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    
+    /**
+     * Rebuilds the store and its indexes before serving requests
+     * The latest snapshot is loaded with its blocks decoded and indexed in parallel
+     * (the store and every index accept concurrent writers), then only the log written
+     * after the snapshot is replayed
+     */
+    @PostConstruct
+    public void recover() {
+        if (!writeAheadLog.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long snapshotLsn = snapshotManager.load(this::applySnapshotted);
+        long replayed = writeAheadLog.recover(snapshotLsn, this::applyRecovered);
+        // IDs issued before the restart may be ahead of the clock the generator starts from
+        transactionStore.ids().forEach(idGenerator::advancePast);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        snapshotManager.recordRecovery(elapsed, replayed);
+        logger.info("Recovered {} transactions ({} log records after snapshot LSN {}) in {} ms",
+                transactionStore.size(), replayed, snapshotLsn, elapsed.toMillis());
+    }
+    
+    /**
+     * Writes a snapshot once enough has been logged since the last one, then drops the
+     * log segments it covers
+     * Runs in the background; writers are paused only while the snapshot LSN is read
+     */
+    @Scheduled(fixedDelayString = "${transaction.wal.snapshot.interval:PT5M}",
+            initialDelayString = "${transaction.wal.snapshot.interval:PT5M}")
+    public void snapshot() {
+        if (!snapshotManager.isDue(writeAheadLog.lastLsn())) {
+            return;
+        }
+        long lsn;
+        checkpointLock.writeLock().lock();
+        try {
+            lsn = writeAheadLog.lastLsn();
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+        snapshotManager.write(lsn, transactionStore.values());
+        writeAheadLog.discardThrough(lsn);
+    }
+    
+    private void applySnapshotted(Transaction transaction) {
+        transactionStore.compute(transaction.getId(), (id, existing) -> {
+            index(transaction);
+            return transaction;
+        });
+    }
+    
+    private void applyRecovered(WalRecord record) {
+        if (record.type() == WalRecord.Type.PUT) {
+            checkIndexable(record.transaction());
+        }
+        transactionStore.compute(record.id(), (id, existing) -> {
+            if (record.type() == WalRecord.Type.DELETE) {
+                if (existing != null) {
+                    unindex(existing);
+                }
+                return null;
+            }
+            if (existing == null) {
+                index(record.transaction());
+            } else {
+                reindex(existing, record.transaction());
+            }
+            return record.transaction();
+        });
+    }
 
+    /**
+     * Creates a new transaction
+     * Returns once the write-ahead log holds it at the configured durability level
+     * Not cached here: the settlement engine may change it before a put would land, so
+     * the cache is only filled by reads
+     */
     @Override
-    @CachePut(value = "transactions", key = "#result.id")
     public Transaction createTransaction(Transaction transaction) {
         logger.info("Creating transaction in store: {}", transaction);
+        normalize(transaction);
         transaction.setId(idGenerator.nextId());
-        transactionStore.put(transaction.getId(), transaction);
+        transaction.setVersion(1L);
+        long[] lsn = new long[1];
+        checkpointLock.readLock().lock();
+        try {
+            transactionStore.compute(transaction.getId(), (id, existing) -> {
+                requireUnused(id, existing);
+                checkBalances(null, transaction);
+                lsn[0] = writeAheadLog.appendPut(transaction);
+                index(transaction);
+                return transaction;
+            });
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        // Waiting outside compute() lets other writers join the same group commit
+        writeAheadLog.await(lsn[0]);
         logger.info("Transaction created successfully. Store size: {}", transactionStore.size());
+        publish(new TransactionsCreatedEvent(List.of(transaction)));
         return transaction;
     }
 
+    /**
+     * Creates a batch of transactions
+     * IDs come from a single reservation, the store is written under one checkpoint lock
+     * acquisition, and the call waits once for the last log record, so the whole batch
+     * shares a group commit
+     */
+    @Override
+    public List<Transaction> createTransactions(List<Transaction> transactions) {
+        logger.info("Creating {} transactions in store", transactions.size());
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        // Checked up front so a bad row cannot leave the batch half written
+        transactions.forEach(TransactionServiceImpl::normalize);
+        long[] ids = idGenerator.nextIds(transactions.size());
+        long lastLsn = 0;
+        checkpointLock.readLock().lock();
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                Transaction transaction = transactions.get(i);
+                transaction.setId(ids[i]);
+                transaction.setVersion(1L);
+                long[] lsn = new long[1];
+                transactionStore.compute(transaction.getId(), (id, existing) -> {
+                    requireUnused(id, existing);
+                    checkBalances(null, transaction);
+                    lsn[0] = writeAheadLog.appendPut(transaction);
+                    index(transaction);
+                    return transaction;
+                });
+                lastLsn = lsn[0];
+            }
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        writeAheadLog.await(lastLsn);
+        logger.info("Batch created successfully. Store size: {}", transactionStore.size());
+        publish(new TransactionsCreatedEvent(transactions));
+        return transactions;
+    }
+
     /**
      * Retrieves a transaction by its ID
      * Results are cached to improve performance
@@ -58,6 +271,22 @@ public class TransactionServiceImpl implements TransactionService {
         return transaction;
     }
 
+    /**
+     * Reads transactions straight from the store, without filling the read cache
+     * For internal batch readers such as settlement, whose reads would only churn the cache
+     */
+    @Override
+    public List<Transaction> getTransactionsById(List<Long> ids) {
+        List<Transaction> transactions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Transaction transaction = transactionStore.get(id);
+            if (transaction != null) {
+                transactions.add(transaction);
+            }
+        }
+        return transactions;
+    }
+
     /**
      * Retrieves all transactions
      * Results are no longer cached for real-time data accuracy
@@ -65,14 +294,28 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     public List<Transaction> getAllTransactions() {
         logger.info("Retrieving all transactions. Store size: {}", transactionStore.size());
-        List<Transaction> transactions = new ArrayList<>(transactionStore.values());
+        List<Transaction> transactions = transactionStore.values().collect(Collectors.toList());
         logger.info("Returned {} transactions", transactions.size());
         return transactions;
     }
     
+    /**
+     * Streams matching transactions straight off the ordered indexes
+     * Rows are resolved one at a time as the consumer pulls them, so memory use does not
+     * grow with the result size
+     */
+    @Override
+    public Stream<Transaction> streamTransactions(TransactionQuery query) {
+        logger.info("Streaming transactions. Type: {}, Status: {}, Search: {}, From: {}, To: {}",
+                    query.getType(), query.getStatus(), query.getSearch(), query.getFrom(), query.getTo());
+        validatePaging(query);
+        return filteredStream(query);
+    }
+    
     /**
      * Retrieves transactions with pagination and filtering
      * Sorted by timestamp in descending order (newest first)
+     * Walks the time-ordered index and stops once the page is full, so no per-request sort is needed
      * Results are no longer cached for real-time data accuracy
      */
     @Override
@@ -83,31 +326,75 @@ public class TransactionServiceImpl implements TransactionService {
         logger.info("Retrieving filtered transactions. Page: {}, Size: {}, Type: {}, Status: {}, Search: {}", 
                     page, size, type, status, search);
         
-        // Filter transactions based on criteria
-        List<Transaction> filteredTransactions = transactionStore.values().stream()
-                .filter(t -> type == null || t.getType() == type)
-                .filter(t -> status == null || t.getStatus() == status)
-                .filter(t -> search == null || search.isEmpty() || 
-                        (t.getId() != null && t.getId().toString().toLowerCase().contains(search.toLowerCase())) ||
-                        (t.getId() != null && t.getId().toString().equals(search)))
-                .sorted(Comparator.comparing(Transaction::getTimestamp).reversed())
+        TransactionQuery query = new TransactionQuery(page, size, type, status, search);
+        validatePaging(query);
+        
+        List<Transaction> pagedTransactions = filteredStream(query)
+                .skip((long) page * size)
+                .limit(size)
                 .collect(Collectors.toList());
         
-        logger.info("Filtered to {} transactions", filteredTransactions.size());
+        logger.info("Returned {} transactions for page {}", pagedTransactions.size(), page);
+        return pagedTransactions;
+    }
+    
+    /**
+     * Runs a paged query and returns the page together with its total
+     * Without a search term or time window the total comes from the count matrix and the walk stops
+     * after the page, so a concurrent write can make page and total disagree; the total is then
+     * approximate. With one, the same walk counts and collects, so page and total always agree.
+     * Cursor queries seek into the ordered index in O(log n), read one row past the page
+     * to find out whether a following page exists, and skip the total
+     */
+    @Override
+    public TransactionPage queryTransactions(TransactionQuery query) {
+        logger.info("Querying transactions: {}", query);
+        validatePaging(query);
+        int size = query.getSize();
         
-        int fromIndex = page * size;
-        if (fromIndex >= filteredTransactions.size()) {
-            if (filteredTransactions.size() > 0) {
-                logger.warn("Page index {} exceeds the available data size {}", page, filteredTransactions.size());
+        if (query.isCursorMode()) {
+            List<Transaction> transactions = filteredStream(query)
+                    .limit(size + 1L)
+                    .collect(Collectors.toList());
+            
+            String nextCursor = null;
+            if (transactions.size() > size) {
+                transactions = transactions.subList(0, size);
+                nextCursor = TransactionKey.of(transactions.get(size - 1)).toCursor();
             }
-            return new ArrayList<>();
+            logger.info("Returned {} transactions, next cursor: {}", transactions.size(), nextCursor);
+            return TransactionPage.ofCursor(transactions, size, nextCursor);
         }
         
-        int toIndex = Math.min(fromIndex + size, filteredTransactions.size());
-        List<Transaction> pagedTransactions = filteredTransactions.subList(fromIndex, toIndex);
+        long fromIndex = (long) query.getPage() * size;
+        long toIndex = fromIndex + size;
+        List<Transaction> transactions;
+        long totalCount;
+        if (hasSearch(query.getSearch()) || query.hasTimeRange()) {
+            transactions = new ArrayList<>(size);
+            totalCount = 0;
+            Iterator<Transaction> matches = filteredStream(query).iterator();
+            while (matches.hasNext()) {
+                Transaction transaction = matches.next();
+                if (totalCount >= fromIndex && totalCount < toIndex) {
+                    transactions.add(transaction);
+                }
+                totalCount++;
+            }
+        } else {
+            totalCount = transactionCounters.count(query.getType(), query.getStatus());
+            transactions = filteredStream(query)
+                    .skip(fromIndex)
+                    .limit(size)
+                    .collect(Collectors.toList());
+        }
         
-        logger.info("Returned {} transactions for page {}", pagedTransactions.size(), page);
-        return pagedTransactions;
+        TransactionPage transactionPage = new TransactionPage(transactions, query.getPage(), size, totalCount);
+        if (totalCount > toIndex && !transactions.isEmpty()) {
+            transactionPage.setNextCursor(TransactionKey.of(transactions.get(transactions.size() - 1)).toCursor());
+        }
+        logger.info("Returned {} of {} matching transactions for page {}", transactions.size(), totalCount, query.getPage());
+        return transactionPage;
     }
     
     /**
@@ -116,35 +403,264 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public long getTransactionCount(TransactionType type, TransactionStatus status, String search) {
-        // Filter transactions based on criteria
-        long count = transactionStore.values().stream()
-                .filter(t -> type == null || t.getType() == type)
-                .filter(t -> status == null || t.getStatus() == status)
-                .filter(t -> search == null || search.isEmpty() || 
-                        (t.getId() != null && t.getId().toString().toLowerCase().contains(search.toLowerCase())) ||
-                        (t.getId() != null && t.getId().toString().equals(search)))
-                .count();
+        // Counts without a search term are read straight from the count matrix
+        long count = hasSearch(search)
+                ? filteredStream(new TransactionQuery(0, 1, type, status, search)).count()
+                : transactionCounters.count(type, status);
         
         logger.info("Filtered transaction count: {}", count);
         return count;
     }
+    
+    /**
+     * Gets the number of transactions per type and status
+     * Read from the count matrix, so the cost does not depend on the store size
+     */
+    @Override
+    public Map<TransactionType, Map<TransactionStatus, Long>> getTransactionCountsByTypeAndStatus() {
+        return transactionCounters.matrix();
+    }
+    
+    /**
+     * Aggregates the whole store on the fork-join pool
+     * Works on a snapshot of the IDs, so concurrent writes may or may not be reflected
+     */
+    @Override
+    public List<TransactionAggregate> aggregateTransactions(Set<AggregateGroup> groupBy, Set<AggregateMetric> metrics) {
+        long[] ids = liveIds();
+        List<TransactionAggregate> rows = new TransactionAggregation(transactionStore::get, groupBy).run(ids, metrics);
+        logger.info("Aggregated {} transactions into {} groups", ids.length, rows.size());
+        return rows;
+    }
+    
+    /**
+     * Retrieves one account's transactions, newest first
+     * Walks only that account's history, so the cost depends on the page size and
+     * not on the store size
+     */
+    @Override
+    public TransactionPage getAccountTransactions(String account, int size, String after) {
+        logger.info("Retrieving transactions for account: {}, size: {}, after: {}", account, size, after);
+        validatePaging(new TransactionQuery(0, size, null, null, null));
+        
+        NavigableSet<TransactionKey> history = accountIndex.history(account);
+        if (after != null && !after.isEmpty()) {
+            history = history.tailSet(TransactionKey.fromCursor(after), false);
+        }
+        // Resolved once per query rather than looked up in the dictionary per row
+        String canonical = accountIndex.canonical(account);
+        List<Transaction> transactions = history.stream()
+                .map(this::resolve)
+                .filter(Objects::nonNull)
+                // Drops entries made stale by a concurrent change of accounts
+                .filter(t -> canonical.equals(t.getSourceAccount()) || canonical.equals(t.getDestinationAccount()))
+                .limit(size + 1L)
+                .collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (transactions.size() > size) {
+            transactions = transactions.subList(0, size);
+            nextCursor = TransactionKey.of(transactions.get(size - 1)).toCursor();
+        }
+        logger.info("Returned {} transactions for account {}", transactions.size(), account);
+        return TransactionPage.ofCursor(transactions, size, nextCursor);
+    }
+    
+    /**
+     * Gets an account's balance from the materialized balances, in constant time
+     */
+    @Override
+    public AccountBalance getAccountBalance(String account) {
+        logger.info("Retrieving balance for account: {}", account);
+        AccountBalance balance = accountBalances.find(account);
+        if (balance == null) {
+            logger.warn("No transactions found for account: {}", account);
+        }
+        return balance;
+    }
+    
+    private static boolean hasSearch(String search) {
+        return search != null && !search.isEmpty();
+    }
+    
+    private void validatePaging(TransactionQuery query) {
+        if (query.getPage() < 0) {
+            throw new IllegalArgumentException("Page index must not be less than zero");
+        }
+        if (query.getSize() < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        if (query.getFrom() != null && query.getTo() != null && !query.getFrom().isBefore(query.getTo())) {
+            throw new IllegalArgumentException("Time range start must be before its end");
+        }
+    }
+    
+    /**
+     * Streams the transactions matching the query filters, newest first
+     * Type/status filters are resolved through the posting sets, so only candidate rows are visited;
+     * a time window and a cursor restrict the walk to a sub-range of the ordered set, found in O(log n)
+     */
+    private Stream<Transaction> filteredStream(TransactionQuery query) {
+        TransactionType type = query.getType();
+        TransactionStatus status = query.getStatus();
+        String search = query.getSearch();
+        TransactionKey after = query.getAfter() != null && !query.getAfter().isEmpty()
+                ? TransactionKey.fromCursor(query.getAfter())
+                : null;
+        
+        if (hasSearch(search)) {
+            Stream<Transaction> matches = searchStream(query, after);
+            if (matches != null) {
+                return matches;
+            }
+        }
+        
+        NavigableSet<TransactionKey> candidates = timeRange(transactionIndex.candidates(type, status), query);
+        if (after != null) {
+            candidates = candidates.tailSet(after, false);
+        }
+        // Terms too short for the ID index are matched digit by digit, without building strings
+        IdSearchIndex.Matcher matcher = hasSearch(search) ? new IdSearchIndex.Matcher(search) : null;
+        return candidates.stream()
+                .map(this::resolve)
+                .filter(Objects::nonNull)
+                .filter(t -> type == null || t.getType() == type)
+                .filter(t -> status == null || t.getStatus() == status)
+                .filter(t -> isInTimeRange(t, query))
+                .filter(t -> matcher == null || matcher.matches(t.getId()));
+    }
+    
+    /**
+     * Narrows newest-first keys to the query's time window
+     * Keys hold milliseconds, so the bounds are widened to whole milliseconds here
+     * and checked exactly by {@link #isInTimeRange}
+     */
+    private static NavigableSet<TransactionKey> timeRange(NavigableSet<TransactionKey> keys, TransactionQuery query) {
+        LocalDateTime to = query.getTo();
+        if (to != null) {
+            long toMillis = TransactionKey.toEpochMillis(to) + (to.getNano() % 1_000_000 != 0 ? 1 : 0);
+            // Everything at or after 'to' sorts before its lowest possible key
+            keys = keys.tailSet(new TransactionKey(toMillis, Long.MIN_VALUE), false);
+        }
+        if (query.getFrom() != null) {
+            keys = keys.headSet(new TransactionKey(TransactionKey.toEpochMillis(query.getFrom()), Long.MIN_VALUE), true);
+        }
+        return keys;
+    }
+    
+    private static boolean isInTimeRange(Transaction transaction, TransactionQuery query) {
+        if (!query.hasTimeRange()) {
+            return true;
+        }
+        LocalDateTime timestamp = transaction.getTimestamp();
+        return timestamp != null
+                && (query.getFrom() == null || !timestamp.isBefore(query.getFrom()))
+                && (query.getTo() == null || timestamp.isBefore(query.getTo()));
+    }
+    
+    /**
+     * Resolves an ID search term without walking the ordered indexes
+     * - Non-digit terms cannot match any ID
+     * - A term as long as the longest ID can only be that ID, so it is a direct store lookup
+     * - Longer terms go through the trigram index
+     * The (usually small) result is then filtered and sorted newest first
+     * 
+     * @return Matching transactions, or null when the term is too short for the index
+     */
+    private Stream<Transaction> searchStream(TransactionQuery query, TransactionKey after) {
+        String search = query.getSearch();
+        Stream<Transaction> matches;
+        if (!IdSearchIndex.isDigits(search)) {
+            return Stream.empty();
+        } else if (idSearchIndex.isExactLength(search)) {
+            matches = Stream.ofNullable(lookupExactId(search));
+        } else if (search.length() >= IdSearchIndex.GRAM_LENGTH) {
+            matches = Arrays.stream(idSearchIndex.search(search))
+                    .mapToObj(transactionStore::get)
+                    .filter(Objects::nonNull);
+        } else {
+            return null;
+        }
+        return matches
+                .filter(t -> query.getType() == null || t.getType() == query.getType())
+                .filter(t -> query.getStatus() == null || t.getStatus() == query.getStatus())
+                .filter(t -> isInTimeRange(t, query))
+                .filter(t -> after == null || TransactionKey.of(t).compareTo(after) > 0)
+                .sorted(Comparator.comparing(TransactionKey::of));
+    }
+    
+    private Transaction lookupExactId(String digits) {
+        if (digits.charAt(0) == '0') {
+            return null;
+        }
+        try {
+            return transactionStore.get(Long.parseLong(digits));
+        } catch (NumberFormatException e) {
+            // Longer than any long value
+            return null;
+        }
+    }
+    
+    /**
+     * Looks up the stored transaction behind an index key
+     * Returns null for keys made stale by a concurrent update or delete,
+     * so a re-timestamped transaction is never returned twice by one walk
+     */
+    private Transaction resolve(TransactionKey key) {
+        Transaction transaction = transactionStore.get(key.id());
+        if (transaction == null || TransactionKey.toEpochMillis(transaction.getTimestamp()) != key.timestamp()) {
+            return null;
+        }
+        return transaction;
+    }
 
     /**
      * Updates an existing transaction
-     * Evicts only the cache for the specific transaction being updated
+     * Evicts only the cache for the specific transaction being updated. The version and status
+     * transition are checked inside compute(), as for a status change, so a full update can
+     * neither overwrite a concurrent change nor move a transaction backwards in its lifecycle
      * @throws IllegalArgumentException if the transaction doesn't exist
      */
     @Override
-    @CachePut(value = "transactions", key = "#id")
-    public Transaction updateTransaction(Long id, Transaction transaction) {
-        logger.info("Updating transaction with ID: {}", id);
-        if (!transactionStore.containsKey(id)) {
-            logger.error("Transaction not found with ID: {}", id);
-            throw new IllegalArgumentException("Transaction not found");
-        }
+    @Caching(evict = {
+            @CacheEvict(value = "transactions", key = "#id", beforeInvocation = true),
+            @CacheEvict(value = "transactions", key = "#id")})
+    public Transaction updateTransaction(Long id, Transaction transaction, Long expectedVersion) {
+        logger.info("Updating transaction with ID: {} (expected version: {})", id, expectedVersion);
+        normalize(transaction);
         transaction.setId(id);
-        transactionStore.put(id, transaction);
+        long[] lsn = new long[1];
+        Transaction[] previous = new Transaction[1];
+        // compute() keeps the existence check, the log append, the replacement and the index update atomic per ID
+        checkpointLock.readLock().lock();
+        try {
+            transactionStore.compute(id, (key, existing) -> {
+                if (existing == null) {
+                    logger.error("Transaction not found with ID: {}", id);
+                    throw new IllegalArgumentException("Transaction not found");
+                }
+                long current = existing.getVersion() == null ? 0L : existing.getVersion();
+                if (expectedVersion != null && expectedVersion != current) {
+                    throw new VersionConflictException(expectedVersion, current);
+                }
+                TransactionStatus from = existing.getStatus();
+                TransactionStatus to = transaction.getStatus();
+                if (from != null && to != null && from != to && !from.canTransitionTo(to)) {
+                    throw new InvalidStatusTransitionException(from, to);
+                }
+                transaction.setVersion(current + 1);
+                checkBalances(existing, transaction);
+                lsn[0] = writeAheadLog.appendPut(transaction);
+                reindex(existing, transaction);
+                previous[0] = existing;
+                return transaction;
+            });
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        writeAheadLog.await(lsn[0]);
         logger.info("Transaction updated successfully");
+        publish(new TransactionsUpdatedEvent(List.of(previous[0]), List.of(transaction)));
         return transaction;
     }
 
@@ -154,14 +670,403 @@ public class TransactionServiceImpl implements TransactionService {
      * @throws IllegalArgumentException if the transaction doesn't exist
      */
     @Override
-    @CacheEvict(value = "transactions", key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "transactions", key = "#id", beforeInvocation = true),
+            @CacheEvict(value = "transactions", key = "#id")})
     public void deleteTransaction(Long id) {
         logger.info("Deleting transaction with ID: {}", id);
-        if (!transactionStore.containsKey(id)) {
-            logger.error("Transaction not found with ID: {}", id);
-            throw new IllegalArgumentException("Transaction not found");
+        long[] lsn = new long[1];
+        Transaction[] deleted = new Transaction[1];
+        checkpointLock.readLock().lock();
+        try {
+            transactionStore.compute(id, (key, existing) -> {
+                if (existing == null) {
+                    logger.error("Transaction not found with ID: {}", id);
+                    throw new IllegalArgumentException("Transaction not found");
+                }
+                checkBalances(existing, null);
+                lsn[0] = writeAheadLog.appendDelete(id);
+                unindex(existing);
+                deleted[0] = existing;
+                return null;
+            });
+        } finally {
+            checkpointLock.readLock().unlock();
         }
-        transactionStore.remove(id);
+        writeAheadLog.await(lsn[0]);
+        compactSearchIndex();
         logger.info("Transaction deleted successfully. Store size: {}", transactionStore.size());
+        publish(new TransactionsDeletedEvent(List.of(deleted[0])));
+    }
+    
+    /**
+     * Moves one transaction to a new status
+     * The version check, transition check, log append and index update all happen inside the
+     * store's per-ID compute(), so concurrent changes to the same transaction are serialized
+     * without a service-wide lock and a stale version is always detected, never overwritten
+     */
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "transactions", key = "#id", beforeInvocation = true),
+            @CacheEvict(value = "transactions", key = "#id")})
+    public Transaction updateTransactionStatus(Long id, TransactionStatus status, Long expectedVersion) {
+        logger.info("Updating status of transaction {} to {} (expected version: {})", id, status, expectedVersion);
+        if (status == null) {
+            throw new IllegalArgumentException("Status is required");
+        }
+        long[] lsn = new long[1];
+        Transaction[] previous = new Transaction[1];
+        Transaction updated;
+        checkpointLock.readLock().lock();
+        try {
+            updated = transactionStore.compute(id, (key, existing) -> {
+                if (existing == null) {
+                    logger.error("Transaction not found with ID: {}", id);
+                    throw new IllegalArgumentException("Transaction not found");
+                }
+                long current = existing.getVersion() == null ? 0L : existing.getVersion();
+                if (expectedVersion != null && expectedVersion != current) {
+                    throw new VersionConflictException(expectedVersion, current);
+                }
+                if (existing.getStatus() != null && !existing.getStatus().canTransitionTo(status)) {
+                    throw new InvalidStatusTransitionException(existing.getStatus(), status);
+                }
+                Transaction changed = copyOf(existing);
+                changed.setStatus(status);
+                changed.setVersion(current + 1);
+                checkBalances(existing, changed);
+                lsn[0] = writeAheadLog.appendPut(changed);
+                reindex(existing, changed);
+                previous[0] = existing;
+                return changed;
+            });
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        writeAheadLog.await(lsn[0]);
+        logger.info("Transaction {} is now {} at version {}", id, status, updated.getVersion());
+        publish(new TransactionsUpdatedEvent(List.of(previous[0]), List.of(updated)));
+        return updated;
+    }
+    
+    /**
+     * Sets the status of all matching transactions in one pass
+     * Matching IDs are collected first, then changed one by one with one durability wait for the
+     * whole set; rows that stopped matching in between are left alone, and rows whose status cannot
+     * make the transition are skipped and counted, as a single status change would reject them.
+     * The checkpoint lock is taken per row: the lock is not fair, so a snapshot waiting behind one
+     * long hold would also hold up every other writer.
+     */
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "transactions", allEntries = true, beforeInvocation = true),
+            @CacheEvict(value = "transactions", allEntries = true)})
+    public BulkUpdateResult updateTransactionStatuses(TransactionQuery query, TransactionStatus status) {
+        logger.info("Bulk updating status to {} for type: {}, status: {}, search: {}, from: {}, to: {}",
+                    status, query.getType(), query.getStatus(), query.getSearch(), query.getFrom(), query.getTo());
+        if (status == null) {
+            throw new IllegalArgumentException("Status is required");
+        }
+        long[] ids = matchingIds(query);
+        List<Transaction> previous = new ArrayList<>();
+        List<Transaction> updated = new ArrayList<>();
+        long[] lsn = new long[1];
+        long[] skipped = new long[1];
+        for (long id : ids) {
+            checkpointLock.readLock().lock();
+            try {
+                transactionStore.compute(id, (key, existing) -> {
+                    if (existing == null || existing.getStatus() == status || !matches(existing, query)) {
+                        return existing;
+                    }
+                    if (existing.getStatus() != null && !existing.getStatus().canTransitionTo(status)) {
+                        skipped[0]++;
+                        return existing;
+                    }
+                    // Stored instances may be shared with readers, so the change goes on a copy
+                    Transaction changed = copyOf(existing);
+                    changed.setStatus(status);
+                    changed.setVersion(nextVersion(existing));
+                    checkBalances(existing, changed);
+                    lsn[0] = writeAheadLog.appendPut(changed);
+                    reindex(existing, changed);
+                    previous.add(existing);
+                    updated.add(changed);
+                    return changed;
+                });
+            } finally {
+                checkpointLock.readLock().unlock();
+            }
+        }
+        writeAheadLog.await(lsn[0]);
+        logger.info("Bulk updated {} of {} matching transactions, {} skipped as invalid transitions",
+                updated.size(), ids.length, skipped[0]);
+        if (!updated.isEmpty()) {
+            publish(new TransactionsUpdatedEvent(previous, updated));
+        }
+        return new BulkUpdateResult(updated.size(), skipped[0]);
+    }
+    
+    /**
+     * Deletes all matching transactions in one pass
+     * Like the bulk update, checkpoint lock per row included, with the ID search index
+     * compacted at most once at the end
+     */
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "transactions", allEntries = true, beforeInvocation = true),
+            @CacheEvict(value = "transactions", allEntries = true)})
+    public long deleteTransactions(TransactionQuery query) {
+        logger.info("Bulk deleting transactions for type: {}, status: {}, search: {}, from: {}, to: {}",
+                    query.getType(), query.getStatus(), query.getSearch(), query.getFrom(), query.getTo());
+        long[] ids = matchingIds(query);
+        List<Transaction> deleted = new ArrayList<>();
+        long[] lsn = new long[1];
+        for (long id : ids) {
+            checkpointLock.readLock().lock();
+            try {
+                transactionStore.compute(id, (key, existing) -> {
+                    if (existing == null || !matches(existing, query)) {
+                        return existing;
+                    }
+                    checkBalances(existing, null);
+                    lsn[0] = writeAheadLog.appendDelete(id);
+                    unindex(existing);
+                    deleted.add(existing);
+                    return null;
+                });
+            } finally {
+                checkpointLock.readLock().unlock();
+            }
+        }
+        writeAheadLog.await(lsn[0]);
+        compactSearchIndex();
+        logger.info("Bulk deleted {} transactions. Store size: {}", deleted.size(), transactionStore.size());
+        if (!deleted.isEmpty()) {
+            publish(new TransactionsDeletedEvent(deleted));
+        }
+        return deleted.size();
+    }
+    
+    /**
+     * Applies a batch of status transitions under one checkpoint lock acquisition and one durability wait
+     * Each change is a compare-and-set on the version, like {@link #updateTransactionStatus}, but
+     * conflicts and invalid transitions skip the change instead of failing the batch.
+     * Changed transactions are evicted from the cache one by one rather than clearing it.
+     */
+    @Override
+    public List<Transaction> applyStatusChanges(List<StatusChange> changes) {
+        List<Transaction> previous = new ArrayList<>(changes.size());
+        List<Transaction> applied = new ArrayList<>(changes.size());
+        long lastLsn = 0;
+        checkpointLock.readLock().lock();
+        try {
+            for (StatusChange change : changes) {
+                long[] lsn = new long[1];
+                Transaction[] changed = new Transaction[2];
+                transactionStore.compute(change.getId(), (key, existing) -> {
+                    long current = existing == null || existing.getVersion() == null ? 0L : existing.getVersion();
+                    long expected = change.getExpectedVersion() == null ? 0L : change.getExpectedVersion();
+                    if (existing == null || current != expected || existing.getStatus() == null
+                            || !existing.getStatus().canTransitionTo(change.getStatus())) {
+                        return existing;
+                    }
+                    Transaction transaction = copyOf(existing);
+                    transaction.setStatus(change.getStatus());
+                    if (change.getBankReference() != null) {
+                        transaction.setBankReference(change.getBankReference());
+                    }
+                    if (change.getProcessingDate() != null) {
+                        transaction.setProcessingDate(change.getProcessingDate());
+                    }
+                    transaction.setVersion(current + 1);
+                    checkBalances(existing, transaction);
+                    lsn[0] = writeAheadLog.appendPut(transaction);
+                    reindex(existing, transaction);
+                    changed[0] = existing;
+                    changed[1] = transaction;
+                    return transaction;
+                });
+                if (changed[1] != null) {
+                    previous.add(changed[0]);
+                    applied.add(changed[1]);
+                    lastLsn = Math.max(lastLsn, lsn[0]);
+                }
+            }
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        writeAheadLog.await(lastLsn);
+        Cache cache = cacheManager != null ? cacheManager.getCache("transactions") : null;
+        if (cache != null) {
+            applied.forEach(transaction -> cache.evict(transaction.getId()));
+        }
+        logger.debug("Applied {} of {} status changes", applied.size(), changes.size());
+        if (!applied.isEmpty()) {
+            publish(new TransactionsUpdatedEvent(previous, applied));
+        }
+        return applied;
+    }
+    
+    private void publish(Object event) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+    
+    /**
+     * Snapshots the IDs matching a bulk operation's filters
+     * @throws IllegalArgumentException if no filter is given, so a bare request cannot touch every row
+     */
+    private long[] matchingIds(TransactionQuery query) {
+        if (query.getType() == null && query.getStatus() == null && !hasSearch(query.getSearch()) && !query.hasTimeRange()) {
+            throw new IllegalArgumentException("At least one filter is required for bulk operations");
+        }
+        validatePaging(query);
+        return filteredStream(query).mapToLong(Transaction::getId).toArray();
+    }
+    
+    /**
+     * Re-checks a row against the filters that can change after the ID snapshot; the ID itself cannot
+     */
+    private static boolean matches(Transaction transaction, TransactionQuery query) {
+        return (query.getType() == null || transaction.getType() == query.getType())
+                && (query.getStatus() == null || transaction.getStatus() == query.getStatus())
+                && isInTimeRange(transaction, query);
+    }
+    
+    /**
+     * Rebuilds the ID search index once enough deleted IDs have piled up
+     * Starting under the checkpoint write lock means no write is between indexing an ID and
+     * storing it; the store is then read with no lock held, while writers carry on
+     */
+    private void compactSearchIndex() {
+        if (!idSearchIndex.needsCompaction()) {
+            return;
+        }
+        boolean started;
+        checkpointLock.writeLock().lock();
+        try {
+            started = idSearchIndex.startRebuild();
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+        if (started) {
+            logger.info("Compacting ID search index");
+            idSearchIndex.finishRebuild(this::liveIds);
+        }
+    }
+    
+    /**
+     * Copies the IDs in the store, taking no lock of this service or its indexes
+     */
+    private long[] liveIds() {
+        return StreamSupport.stream(transactionStore.ids().spliterator(), false)
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+    
+    /**
+     * Brings a new or updated transaction to the precision every store keeps: amounts in minor
+     * units, dates to the millisecond. The object returned to the caller is then the one a later
+     * read returns, whichever engine stores it. An amount that would lose digits is refused
+     * rather than rounded; like the indexing checks, this happens before the write is logged
+     * @throws IllegalArgumentException if the amount has more than two decimals or does not fit in minor units
+     */
+    private static void normalize(Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        if (amount != null) {
+            if (amount.stripTrailingZeros().scale() > MoneyUtils.MINOR_UNIT_SCALE) {
+                throw new IllegalArgumentException("Amount cannot have more than " + MoneyUtils.MINOR_UNIT_SCALE + " decimals");
+            }
+            checkIndexable(transaction);
+            transaction.setAmount(amount.setScale(MoneyUtils.MINOR_UNIT_SCALE));
+        }
+        transaction.setTimestamp(DateTimeUtils.truncateToMillis(transaction.getTimestamp()));
+        transaction.setProcessingDate(DateTimeUtils.truncateToMillis(transaction.getProcessingDate()));
+    }
+
+    /**
+     * Runs the checks that indexing can fail, so a write fails before it is logged
+     * rather than after, when the log already holds it
+     * @throws IllegalArgumentException if the amount does not fit in minor units
+     */
+    private static void checkIndexable(Transaction transaction) {
+        if (transaction.getAmount() == null) {
+            return;
+        }
+        try {
+            MoneyUtils.toMinorUnits(transaction.getAmount());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount is out of range");
+        }
+    }
+    
+    /**
+     * Checks that a write keeps every account balance in range, so it fails before it is logged
+     * @param previous Stored version, or null for a new transaction
+     * @param current Version being written, or null for a delete
+     * @throws IllegalArgumentException if a settled or pending balance would overflow
+     */
+    private void checkBalances(Transaction previous, Transaction current) {
+        try {
+            accountBalances.check(previous, current);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Account balance is out of range");
+        }
+    }
+    
+    /**
+     * Refuses to create over a stored transaction, so a reused ID fails instead of replacing it
+     * @throws IllegalStateException if the ID is already in use
+     */
+    private static void requireUnused(Long id, Transaction existing) {
+        if (existing != null) {
+            logger.error("Generated ID {} is already in use", id);
+            throw new IllegalStateException("Transaction ID " + id + " is already in use");
+        }
+    }
+    
+    private static long nextVersion(Transaction existing) {
+        return existing.getVersion() == null ? 1L : existing.getVersion() + 1;
+    }
+    
+    private static Transaction copyOf(Transaction source) {
+        Transaction copy = new Transaction();
+        copy.setId(source.getId());
+        copy.setDescription(source.getDescription());
+        copy.setAmount(source.getAmount());
+        copy.setType(source.getType());
+        copy.setTimestamp(source.getTimestamp());
+        copy.setSourceAccount(source.getSourceAccount());
+        copy.setDestinationAccount(source.getDestinationAccount());
+        copy.setStatus(source.getStatus());
+        copy.setBankReference(source.getBankReference());
+        copy.setProcessingDate(source.getProcessingDate());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+
+    private void index(Transaction transaction) {
+        transactionIndex.add(transaction);
+        transactionCounters.add(transaction);
+        idSearchIndex.add(transaction.getId());
+        accountIndex.add(transaction);
+        accountBalances.add(transaction);
+    }
+    
+    private void reindex(Transaction previous, Transaction current) {
+        transactionIndex.update(previous, current);
+        transactionCounters.update(previous, current);
+        accountIndex.update(previous, current);
+        accountBalances.update(previous, current);
+    }
+    
+    private void unindex(Transaction transaction) {
+        transactionIndex.remove(transaction);
+        transactionCounters.remove(transaction);
+        idSearchIndex.remove(transaction.getId());
+        accountIndex.remove(transaction);
+        accountBalances.remove(transaction);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.bank.transaction.service.importer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for bulk imports
+ * - GET /actuator/imports lists all imports with their progress
+ * - GET /actuator/imports/{id} reports one import
+ * - POST /actuator/imports with {"file": "name.csv"} starts importing a file from the import directory
+ */
+@Component
+@Endpoint(id = "imports")
+public class ImportEndpoint {
+
+    @Autowired
+    private TransactionImporter importer;
+
+    @ReadOperation
+    public List<Map<String, Object>> imports() {
+        return importer.jobs().stream().map(ImportJob::describe).toList();
+    }
+
+    @ReadOperation
+    public Map<String, Object> importJob(@Selector String id) {
+        ImportJob job = importer.find(id);
+        return job != null ? job.describe() : null;
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(String file) {
+        return importer.start(file).describe();
+    }
+}
@@ -0,0 +1,117 @@
+package com.bank.transaction.service.importer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one file import
+ * Counters are updated by the chunk workers and read by the actuator endpoint at any time
+ */
+public class ImportJob {
+
+    /**
+     * Lifecycle of an import
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private static final int MAX_ERROR_SAMPLES = 20;
+
+    private final String id;
+    private final Path file;
+    private final long totalBytes;
+    private final Instant startedAt = Instant.now();
+
+    private final AtomicLong bytesProcessed = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<String> errorSamples = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    ImportJob(String id, Path file, long totalBytes) {
+        this.id = id;
+        this.file = file;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    void chunkDone(long bytes) {
+        bytesProcessed.addAndGet(bytes);
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void imported(int rows) {
+        imported.addAndGet(rows);
+    }
+
+    /**
+     * Counts a rejected row, keeping the first few reasons for the report
+     */
+    void rejected(long offset, String reason) {
+        rejected.incrementAndGet();
+        if (errorSamples.size() < MAX_ERROR_SAMPLES) {
+            errorSamples.add("Byte " + offset + ": " + reason);
+        }
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String reason) {
+        failure = reason;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    /**
+     * Point-in-time view of the job for reporting
+     */
+    public Map<String, Object> describe() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+        long rows = rowsRead.get();
+
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", id);
+        view.put("file", file.getFileName().toString());
+        view.put("status", status);
+        view.put("progress", totalBytes > 0 ? Math.min(100.0, bytesProcessed.get() * 100.0 / totalBytes) : 100.0);
+        view.put("rowsRead", rows);
+        view.put("imported", imported.get());
+        view.put("rejected", rejected.get());
+        view.put("rowsPerSecond", Math.round(rows / seconds));
+        view.put("startedAt", startedAt.toString());
+        view.put("elapsedSeconds", seconds);
+        if (failure != null) {
+            view.put("failure", failure);
+        }
+        view.put("errors", List.copyOf(errorSamples));
+        return view;
+    }
+}
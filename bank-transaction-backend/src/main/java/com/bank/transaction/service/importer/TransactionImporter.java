@@ -0,0 +1,313 @@
+package com.bank.transaction.service.importer;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.util.TransactionCsv;
+import com.bank.transaction.validator.TransactionValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-side bulk import of historical transactions from CSV or NDJSON files
+ *
+ * A file is split into chunks of about transaction.import.chunk-size, each ending on a line
+ * boundary. Chunks are memory-mapped and parsed by a pool of workers in parallel. Rows are
+ * validated like API input, and valid rows go to the service in batches, so each batch takes
+ * one ID block reservation and one log group commit. Only files inside the configured import
+ * directory can be read. CSV files need a header line in the export format; quoted fields
+ * must not span lines.
+ */
+@Component
+public class TransactionImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionImporter.class);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionValidator transactionValidator;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Path directory;
+    private final long chunkSize;
+    private final int batchSize;
+    private final ExecutorService runners;
+    private final ExecutorService workers;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public TransactionImporter(@Value("${transaction.import.directory:data/import}") Path directory,
+                               @Value("${transaction.import.chunk-size:8MB}") DataSize chunkSize,
+                               @Value("${transaction.import.batch-size:5000}") int batchSize,
+                               @Value("${transaction.import.parallelism:0}") int parallelism) {
+        if (chunkSize.toBytes() < 1024 || chunkSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Import chunk size must be between 1KB and 2GB");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Import batch size must be at least 1");
+        }
+        this.directory = directory.toAbsolutePath().normalize();
+        this.chunkSize = chunkSize.toBytes();
+        this.batchSize = batchSize;
+        this.runners = Executors.newSingleThreadExecutor(daemonThreads("import-runner"));
+        this.workers = Executors.newFixedThreadPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                daemonThreads("import-worker"));
+    }
+
+    /**
+     * Starts importing a file in the background
+     * Imports run one after another; a queued import shows as RUNNING with no progress yet
+     *
+     * @param fileName File name, relative to the import directory
+     * @return The new job
+     * @throws IllegalArgumentException if the file is outside the import directory, missing,
+     *                                  or neither .csv nor .ndjson/.jsonl
+     */
+    public ImportJob start(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException("Import file must be inside the import directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Import file not found: " + fileName);
+        }
+        try {
+            // A symbolic link inside the directory must not lead out of it
+            if (!file.toRealPath().startsWith(directory.toRealPath())) {
+                throw new IllegalArgumentException("Import file must be inside the import directory");
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Import file cannot be read: " + fileName);
+        }
+        boolean csv = hasExtension(file, ".csv");
+        if (!csv && !hasExtension(file, ".ndjson") && !hasExtension(file, ".jsonl")) {
+            throw new IllegalArgumentException("Import file must be .csv, .ndjson or .jsonl");
+        }
+
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Import file cannot be read: " + fileName);
+        }
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file, size);
+        jobs.put(job.getId(), job);
+        runners.execute(() -> run(job, file, csv));
+        logger.info("Queued import {} of {} ({} bytes)", job.getId(), file, size);
+        return job;
+    }
+
+    /**
+     * Looks up a job by ID
+     *
+     * @return The job, or null if unknown
+     */
+    public ImportJob find(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * All jobs since startup
+     */
+    public Collection<ImportJob> jobs() {
+        return jobs.values();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runners.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path file, boolean csv) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            int[] columns = null;
+            if (csv) {
+                String header = readLine(channel, 0);
+                columns = TransactionCsv.columns(header.strip());
+                start = header.getBytes(StandardCharsets.UTF_8).length + 1;
+                job.chunkDone(Math.min(start, size));
+            }
+
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long[] chunk : split(channel, start, size)) {
+                int[] csvColumns = columns;
+                chunks.add(workers.submit(() -> {
+                    importChunk(job, channel, chunk[0], chunk[1], csvColumns);
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+            job.complete();
+            logger.info("Import {} completed: {}", job.getId(), job.describe());
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.error("Import {} failed: {}", job.getId(), cause.getMessage());
+            job.fail(cause.getMessage());
+        }
+    }
+
+    /**
+     * Cuts [start, size) into ranges of about chunkSize, each extended to the end of its last line
+     */
+    private List<long[]> split(FileChannel channel, long start, long size) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            // Scan forward from the nominal end to the next line break
+            scan:
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        end += i + 1;
+                        break scan;
+                    }
+                }
+                end += read;
+            }
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private void importChunk(ImportJob job, FileChannel channel, long start, long end, int[] columns) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        ObjectReader reader = objectMapper.readerFor(Transaction.class);
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        byte[] line = new byte[256];
+
+        int position = 0;
+        int limit = buffer.limit();
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int length = lineEnd - position;
+            if (length > 0 && buffer.get(lineEnd - 1) == '\r') {
+                length--;
+            }
+            if (length > 0) {
+                if (line.length < length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(position, line, 0, length);
+                String text = new String(line, 0, length, StandardCharsets.UTF_8);
+                if (!text.isBlank()) {
+                    parseRow(job, start + position, text, columns, reader, batch);
+                    if (batch.size() == batchSize) {
+                        flush(job, batch);
+                    }
+                }
+            }
+            position = lineEnd + 1;
+        }
+        flush(job, batch);
+        job.chunkDone(end - start);
+    }
+
+    private void parseRow(ImportJob job, long offset, String text, int[] columns,
+                          ObjectReader reader, List<Transaction> batch) {
+        job.rowRead();
+        Transaction transaction;
+        try {
+            transaction = columns != null ? TransactionCsv.parse(text, columns) : reader.readValue(text);
+        } catch (Exception e) {
+            job.rejected(offset, "Unparseable row: " + e.getMessage());
+            return;
+        }
+        List<String> errors = validate(transaction);
+        if (errors.isEmpty()) {
+            batch.add(transaction);
+        } else {
+            job.rejected(offset, String.join("; ", errors));
+        }
+    }
+
+    private void flush(ImportJob job, List<Transaction> batch) {
+        if (!batch.isEmpty()) {
+            job.imported(transactionService.createTransactions(batch).size());
+            batch.clear();
+        }
+    }
+
+    private List<String> validate(Transaction transaction) {
+        List<String> messages = new ArrayList<>();
+        validator.validate(transaction)
+                .forEach(violation -> messages.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+        BindingResult errors = new BeanPropertyBindingResult(transaction, "transaction");
+        transactionValidator.validate(transaction, errors);
+        errors.getFieldErrors()
+                .forEach(error -> messages.add(error.getField() + ": " + error.getDefaultMessage()));
+        return messages;
+    }
+
+    private static String readLine(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        int read = channel.read(buffer, position);
+        for (int i = 0; i < Math.max(read, 0); i++) {
+            if (buffer.get(i) == '\n') {
+                return new String(buffer.array(), 0, i, StandardCharsets.UTF_8);
+            }
+        }
+        throw new IllegalArgumentException("CSV header line not found");
+    }
+
+    private static boolean hasExtension(Path file, String extension) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(extension);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.bank.transaction.service.index;
+
+import com.bank.transaction.model.AccountBalance;
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.service.store.StringDictionary;
+import com.bank.transaction.util.MoneyUtils;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Materialized account balances, maintained as transactions are written
+ * Every transaction debits its source account and credits its destination account
+ * (deposits only have a destination, withdrawals only a source). COMPLETED amounts
+ * go to the settled balance, in-flight ones to the pending balance, and failed,
+ * rejected or cancelled transactions do not count.
+ *
+ * Each account has its own atomic counters in minor units, so writers only contend
+ * when they touch the same account, and a read is a map lookup plus two volatile reads.
+ * Counters never wrap: a write that would overflow one is refused, and {@link #check}
+ * lets the caller find that out before the write is logged.
+ * The settled and pending values of one account are read separately, not as one snapshot.
+ * Accounts are keyed by their dictionary code; a balance keeps one dictionary reference
+ * to its account for as long as it exists.
+ */
+public class AccountBalances {
+
+    private final StringDictionary dictionary;
+    private final Map<Integer, Balance> balances = new ConcurrentHashMap<>();
+
+    /**
+     * @param dictionary Dictionary that assigns the account codes
+     */
+    public AccountBalances(StringDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Applies a newly stored transaction
+     */
+    public void add(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    /**
+     * Reverses a removed transaction
+     *
+     * @param transaction Transaction as it was last applied
+     */
+    public void remove(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    /**
+     * Replaces the effect of a transaction with that of its new version
+     */
+    public void update(Transaction previous, Transaction current) {
+        remove(previous);
+        try {
+            add(current);
+        } catch (ArithmeticException e) {
+            add(previous);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks that replacing one version of a transaction with another keeps every balance in range
+     * A concurrent write to the same account can still push a balance out of range before the
+     * change is applied, in which case applying it throws instead
+     *
+     * @param previous Version as last applied, or null for a new transaction
+     * @param current New version, or null for a removed transaction
+     * @throws ArithmeticException if a settled or pending balance would overflow
+     */
+    public void check(Transaction previous, Transaction current) {
+        Map<AtomicLong, Long> deltas = new IdentityHashMap<>();
+        collect(previous, -1, deltas);
+        collect(current, 1, deltas);
+        deltas.forEach((bucket, delta) -> Math.addExact(bucket.get(), delta));
+    }
+
+    /**
+     * Current balances of an account
+     *
+     * @param account Account number
+     * @return Settled and pending balance, or null if no transaction ever involved the account
+     */
+    public AccountBalance find(String account) {
+        int code = dictionary.codeOf(account);
+        Balance balance = code >= 0 ? balances.get(code) : null;
+        if (balance == null) {
+            return null;
+        }
+        return new AccountBalance(account,
+                MoneyUtils.fromMinorUnits(balance.settled.get()),
+                MoneyUtils.fromMinorUnits(balance.pending.get()));
+    }
+
+    private void apply(Transaction transaction, int sign) {
+        if (transaction.getAmount() == null) {
+            return;
+        }
+        long amount = sign * MoneyUtils.toMinorUnits(transaction.getAmount());
+        credit(transaction.getSourceAccount(), transaction.getStatus(), -amount);
+        try {
+            credit(transaction.getDestinationAccount(), transaction.getStatus(), amount);
+        } catch (ArithmeticException e) {
+            credit(transaction.getSourceAccount(), transaction.getStatus(), amount);
+            throw e;
+        }
+    }
+
+    private void credit(String account, TransactionStatus status, long amount) {
+        if (account == null) {
+            return;
+        }
+        AtomicLong bucket = bucket(balance(account), status);
+        if (bucket != null) {
+            bucket.updateAndGet(value -> Math.addExact(value, amount));
+        }
+    }
+
+    private void collect(Transaction transaction, int sign, Map<AtomicLong, Long> deltas) {
+        if (transaction == null || transaction.getAmount() == null) {
+            return;
+        }
+        long amount = sign * MoneyUtils.toMinorUnits(transaction.getAmount());
+        collect(transaction.getSourceAccount(), transaction.getStatus(), -amount, deltas);
+        collect(transaction.getDestinationAccount(), transaction.getStatus(), amount, deltas);
+    }
+
+    private void collect(String account, TransactionStatus status, long amount, Map<AtomicLong, Long> deltas) {
+        int code = account != null ? dictionary.codeOf(account) : -1;
+        Balance balance = code >= 0 ? balances.get(code) : null;
+        // An account without a balance starts at zero, where a single amount always fits
+        AtomicLong bucket = balance != null ? bucket(balance, status) : null;
+        if (bucket != null) {
+            deltas.merge(bucket, amount, Math::addExact);
+        }
+    }
+
+    private Balance balance(String account) {
+        int code = dictionary.codeOf(account);
+        Balance balance = code >= 0 ? balances.get(code) : null;
+        if (balance != null) {
+            return balance;
+        }
+        code = dictionary.intern(account);
+        Balance created = new Balance();
+        balance = balances.putIfAbsent(code, created);
+        if (balance != null) {
+            // Another writer created it first and holds the reference
+            dictionary.release(code);
+            return balance;
+        }
+        return created;
+    }
+
+    private static AtomicLong bucket(Balance balance, TransactionStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case COMPLETED -> balance.settled;
+            case INITIATED, PENDING, PROCESSING -> balance.pending;
+            case FAILED, REJECTED, CANCELLED -> null;
+        };
+    }
+
+    private static final class Balance {
+        private final AtomicLong settled = new AtomicLong();
+        private final AtomicLong pending = new AtomicLong();
+    }
+}
@@ -0,0 +1,117 @@
+package com.bank.transaction.service.index;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.service.store.StringDictionary;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-account history index
+ * Each account (as source or destination) maps to its transaction keys, newest first,
+ * so an account's history is read without touching any other account's transactions
+ *
+ * Accounts are keyed by their dictionary code, and every indexed entry holds a dictionary
+ * reference to its account. Empty histories are dropped; add and remove go through
+ * ConcurrentHashMap.compute so a history is never dropped while another writer is adding to it
+ */
+public class AccountIndex {
+
+    private final StringDictionary dictionary;
+    private final Map<Integer, NavigableSet<TransactionKey>> histories = new ConcurrentHashMap<>();
+
+    /**
+     * @param dictionary Dictionary that assigns the account codes
+     */
+    public AccountIndex(StringDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Adds a newly stored transaction to the histories of its accounts
+     */
+    public void add(Transaction transaction) {
+        TransactionKey key = TransactionKey.of(transaction);
+        add(transaction.getSourceAccount(), key);
+        if (!Objects.equals(transaction.getSourceAccount(), transaction.getDestinationAccount())) {
+            add(transaction.getDestinationAccount(), key);
+        }
+    }
+
+    /**
+     * Removes a transaction from the histories of its accounts
+     *
+     * @param transaction Transaction as it was last indexed
+     */
+    public void remove(Transaction transaction) {
+        TransactionKey key = TransactionKey.of(transaction);
+        remove(transaction.getSourceAccount(), key);
+        remove(transaction.getDestinationAccount(), key);
+    }
+
+    /**
+     * Re-indexes a replaced transaction if its accounts or sort position changed
+     */
+    public void update(Transaction previous, Transaction current) {
+        if (!TransactionKey.of(previous).equals(TransactionKey.of(current))
+                || !Objects.equals(previous.getSourceAccount(), current.getSourceAccount())
+                || !Objects.equals(previous.getDestinationAccount(), current.getDestinationAccount())) {
+            remove(previous);
+            add(current);
+        }
+    }
+
+    /**
+     * Transactions involving an account
+     *
+     * @param account Account number
+     * @return Keys, newest first; empty for an unknown account
+     */
+    public NavigableSet<TransactionKey> history(String account) {
+        int code = dictionary.codeOf(account);
+        NavigableSet<TransactionKey> history = code >= 0 ? histories.get(code) : null;
+        return history != null ? history : Collections.emptyNavigableSet();
+    }
+
+    /**
+     * The dictionary's shared instance of an account
+     * Stored transactions hold that same instance, so comparing against it is mostly an identity check
+     *
+     * @return Canonical instance, or the account itself if it was never indexed
+     */
+    public String canonical(String account) {
+        int code = dictionary.codeOf(account);
+        return code >= 0 ? dictionary.decode(code) : account;
+    }
+
+    private void add(String account, TransactionKey key) {
+        if (account == null) {
+            return;
+        }
+        histories.compute(dictionary.intern(account), (code, history) -> {
+            NavigableSet<TransactionKey> keys = history != null ? history : new ConcurrentSkipListSet<>();
+            if (!keys.add(key)) {
+                // Already indexed, e.g. a replayed record: the entry holds its reference already
+                dictionary.release(code);
+            }
+            return keys;
+        });
+    }
+
+    private void remove(String account, TransactionKey key) {
+        if (account == null) {
+            return;
+        }
+        int code = dictionary.codeOf(account);
+        histories.computeIfPresent(code, (ignored, history) -> {
+            if (history.remove(key)) {
+                dictionary.release(code);
+            }
+            return history.isEmpty() ? null : history;
+        });
+    }
+}
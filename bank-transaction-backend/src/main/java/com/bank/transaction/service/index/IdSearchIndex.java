@@ -0,0 +1,344 @@
+package com.bank.transaction.service.index;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Substring index over the decimal form of transaction IDs
+ * Every ID gets a dense int ordinal; each of the 1000 possible digit trigrams keeps
+ * an append-only list of the ordinals whose ID contains it. A search term of three or
+ * more digits is resolved by scanning the shortest matching list and verifying each
+ * candidate with {@link Matcher}, which compares digits without creating strings.
+ *
+ * Deletes are lazy: removed IDs stay in the lists (callers drop them when the store
+ * lookup misses) until they make up half of the index, at which point it is rebuilt
+ * from the live IDs. While a rebuild runs, new IDs go to both generations, so writers
+ * are only held up while the rebuild starts and while it swaps generations.
+ */
+public class IdSearchIndex {
+
+    /**
+     * Number of digits per indexed gram; shorter terms cannot use the index
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    private static final int GRAM_COUNT = 1000;
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_CHUNKS = 1 << 15;
+    private static final int MIN_COMPACTION_GARBAGE = 100_000;
+    private static final int MAX_ID_DIGITS = 19;
+
+    // Writers share the read lock; a rebuild takes the write lock only to start and to swap
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private volatile State state = new State();
+
+    // Generation being rebuilt, or null; written under the write lock
+    private volatile State building;
+
+    // Digit count of the longest ID seen so far; longer search terms cannot match anything
+    private final AtomicInteger maxDigits = new AtomicInteger();
+
+    /**
+     * Indexes a newly stored ID
+     *
+     * @param id Transaction ID (positive)
+     */
+    public void add(long id) {
+        rebuildLock.readLock().lock();
+        try {
+            state.add(id);
+            State next = building;
+            if (next != null) {
+                next.add(id);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+        int digits = digitCount(id);
+        maxDigits.accumulateAndGet(digits, Math::max);
+    }
+
+    /**
+     * Records that an ID was deleted
+     * The ID stays in the posting lists until the next rebuild
+     *
+     * @param id Transaction ID
+     */
+    public void remove(long id) {
+        rebuildLock.readLock().lock();
+        try {
+            state.removed.incrementAndGet();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether deleted IDs make up enough of the index to warrant a rebuild
+     */
+    public boolean needsCompaction() {
+        State current = state;
+        int removed = current.removed.get();
+        return removed >= MIN_COMPACTION_GARBAGE && removed * 2L >= current.nextOrdinal.get();
+    }
+
+    /**
+     * Starts a rebuild if one is due: from now on new IDs also go to the next generation
+     * The caller must make sure no ID is indexed but not yet visible in the store, or
+     * {@link #finishRebuild} could miss it
+     *
+     * @return true if a rebuild was started and must be finished by the caller
+     */
+    public boolean startRebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            if (building != null || !needsCompaction()) {
+                return false;
+            }
+            building = new State();
+            return true;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fills the next generation with the live IDs and swaps it in, dropping deleted IDs
+     * The live IDs are read with no lock of this index held. An ID added since the start
+     * may be indexed twice, which {@link #search} tolerates. Searches keep using the old
+     * generation until the swap.
+     *
+     * @param liveIds Reads all IDs currently in the store; may take store locks
+     */
+    public void finishRebuild(Supplier<long[]> liveIds) {
+        State fresh = building;
+        try {
+            for (long id : liveIds.get()) {
+                fresh.add(id);
+            }
+        } catch (RuntimeException e) {
+            building = null;
+            throw e;
+        }
+        rebuildLock.writeLock().lock();
+        try {
+            state = fresh;
+            building = null;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a digit-only term is at least as long as the longest indexed ID,
+     * in which case it can only match an ID exactly
+     *
+     * @param digits Search term (digits only)
+     */
+    public boolean isExactLength(String digits) {
+        return digits.length() >= maxDigits.get();
+    }
+
+    /**
+     * Finds the IDs whose decimal form contains the term
+     * May include IDs deleted since the last rebuild
+     *
+     * @param digits Search term of at least {@link #GRAM_LENGTH} digits
+     * @return Distinct matching IDs, in insertion order
+     */
+    public long[] search(String digits) {
+        if (digits.length() < GRAM_LENGTH || !isDigits(digits)) {
+            throw new IllegalArgumentException("Search term must have at least " + GRAM_LENGTH + " digits");
+        }
+        State current = state;
+        Matcher matcher = new Matcher(digits);
+
+        // Drive the scan with the rarest gram of the term
+        GramPostings driver = null;
+        for (int i = 0; i + GRAM_LENGTH <= digits.length(); i++) {
+            GramPostings postings = current.postings[gramAt(digits, i)];
+            if (driver == null || postings.size < driver.size) {
+                driver = postings;
+            }
+        }
+
+        int size = driver.size;
+        int[] ordinals = driver.ordinals;
+        long[] matches = new long[Math.min(size, 16)];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long id = current.idAt(ordinals[i]);
+            if (matcher.matches(id)) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = id;
+            }
+        }
+        // An ID added while the generation was being rebuilt can appear twice
+        return Arrays.stream(matches, 0, count).distinct().toArray();
+    }
+
+    /**
+     * Whether the term consists of ASCII digits only
+     * IDs are positive, so any other character means nothing can match
+     */
+    public static boolean isDigits(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return !term.isEmpty();
+    }
+
+    private static int gramAt(CharSequence digits, int offset) {
+        return (digits.charAt(offset) - '0') * 100
+                + (digits.charAt(offset + 1) - '0') * 10
+                + (digits.charAt(offset + 2) - '0');
+    }
+
+    private static int digitCount(long id) {
+        int digits = 1;
+        for (long value = id / 10; value > 0; value /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Writes the decimal digits of a positive ID into the end of the buffer
+     *
+     * @return Index of the first digit
+     */
+    private static int writeDigits(long id, byte[] buffer) {
+        int position = buffer.length;
+        long value = id;
+        do {
+            buffer[--position] = (byte) (value % 10);
+            value /= 10;
+        } while (value > 0);
+        return position;
+    }
+
+    /**
+     * Tests whether an ID's decimal form contains a digit term, without allocating per ID
+     * Not thread-safe: create one per query
+     */
+    public static final class Matcher {
+        private final byte[] pattern;
+        private final byte[] buffer = new byte[MAX_ID_DIGITS];
+
+        /**
+         * @param digits Search term (digits only)
+         */
+        public Matcher(String digits) {
+            pattern = new byte[digits.length()];
+            for (int i = 0; i < pattern.length; i++) {
+                pattern[i] = (byte) (digits.charAt(i) - '0');
+            }
+        }
+
+        public boolean matches(long id) {
+            if (id < 0) {
+                return false;
+            }
+            int start = writeDigits(id, buffer);
+            int last = buffer.length - pattern.length;
+            outer:
+            for (int i = start; i <= last; i++) {
+                for (int j = 0; j < pattern.length; j++) {
+                    if (buffer[i + j] != pattern[j]) {
+                        continue outer;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * One generation of the index: the ordinal table and the gram posting lists
+     */
+    private static final class State {
+        private final AtomicInteger nextOrdinal = new AtomicInteger();
+        private final AtomicInteger removed = new AtomicInteger();
+        private final AtomicReferenceArray<long[]> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+        private final GramPostings[] postings = new GramPostings[GRAM_COUNT];
+
+        State() {
+            for (int i = 0; i < GRAM_COUNT; i++) {
+                postings[i] = new GramPostings();
+            }
+        }
+
+        void add(long id) {
+            int ordinal = nextOrdinal.getAndIncrement();
+            if (ordinal < 0 || (ordinal >>> CHUNK_BITS) >= MAX_CHUNKS) {
+                throw new IllegalStateException("ID search index is full");
+            }
+            chunk(ordinal >>> CHUNK_BITS)[ordinal & (CHUNK_SIZE - 1)] = id;
+
+            byte[] digits = new byte[MAX_ID_DIGITS];
+            int start = writeDigits(id, digits);
+            int[] grams = new int[MAX_ID_DIGITS];
+            int gramCount = 0;
+            for (int i = start; i + GRAM_LENGTH <= digits.length; i++) {
+                int gram = digits[i] * 100 + digits[i + 1] * 10 + digits[i + 2];
+                if (!contains(grams, gramCount, gram)) {
+                    grams[gramCount++] = gram;
+                    // Publishing the ordinal also publishes the table entry written above
+                    postings[gram].add(ordinal);
+                }
+            }
+        }
+
+        long idAt(int ordinal) {
+            return chunks.get(ordinal >>> CHUNK_BITS)[ordinal & (CHUNK_SIZE - 1)];
+        }
+
+        private long[] chunk(int index) {
+            long[] chunk = chunks.get(index);
+            if (chunk == null) {
+                chunks.compareAndSet(index, null, new long[CHUNK_SIZE]);
+                chunk = chunks.get(index);
+            }
+            return chunk;
+        }
+
+        private static boolean contains(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Append-only ordinal list for one gram
+     * Readers take size first, then the array: a grown array always holds at least size entries
+     */
+    private static final class GramPostings {
+        private volatile int[] ordinals = new int[4];
+        private volatile int size;
+
+        synchronized void add(int ordinal) {
+            int[] current = ordinals;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                ordinals = current;
+            }
+            current[size] = ordinal;
+            size = size + 1;
+        }
+    }
+}
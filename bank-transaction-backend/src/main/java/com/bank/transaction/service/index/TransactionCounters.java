@@ -0,0 +1,108 @@
+package com.bank.transaction.service.index;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Materialized transaction counts per TransactionType x TransactionStatus cell
+ * Each cell is a LongAdder, so concurrent writers on different threads do not contend,
+ * and any count without a search term is answered by summing at most a handful of cells
+ *
+ * Row/column 0 holds transactions whose type/status is null, so unfiltered and
+ * single-filter totals still include them
+ */
+public class TransactionCounters {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private final LongAdder[][] cells = new LongAdder[TYPES.length + 1][STATUSES.length + 1];
+
+    public TransactionCounters() {
+        for (LongAdder[] row : cells) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Counts a newly stored transaction
+     */
+    public void add(Transaction transaction) {
+        cell(transaction.getType(), transaction.getStatus()).increment();
+    }
+
+    /**
+     * Uncounts a removed transaction
+     */
+    public void remove(Transaction transaction) {
+        cell(transaction.getType(), transaction.getStatus()).decrement();
+    }
+
+    /**
+     * Moves a replaced transaction to its new cell if its type or status changed
+     */
+    public void update(Transaction previous, Transaction current) {
+        if (previous.getType() != current.getType() || previous.getStatus() != current.getStatus()) {
+            remove(previous);
+            add(current);
+        }
+    }
+
+    /**
+     * Number of transactions matching the filters
+     *
+     * @param type Transaction type filter (optional)
+     * @param status Transaction status filter (optional)
+     * @return Current count
+     */
+    public long count(TransactionType type, TransactionStatus status) {
+        int fromRow = type != null ? row(type) : 0;
+        int toRow = type != null ? row(type) : TYPES.length;
+        int fromColumn = status != null ? column(status) : 0;
+        int toColumn = status != null ? column(status) : STATUSES.length;
+
+        long count = 0;
+        for (int r = fromRow; r <= toRow; r++) {
+            for (int c = fromColumn; c <= toColumn; c++) {
+                count += cells[r][c].sum();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Snapshot of the whole matrix
+     *
+     * @return Count per type and status, including empty cells
+     */
+    public Map<TransactionType, Map<TransactionStatus, Long>> matrix() {
+        Map<TransactionType, Map<TransactionStatus, Long>> matrix = new EnumMap<>(TransactionType.class);
+        for (TransactionType type : TYPES) {
+            Map<TransactionStatus, Long> byStatus = new EnumMap<>(TransactionStatus.class);
+            for (TransactionStatus status : STATUSES) {
+                byStatus.put(status, cells[row(type)][column(status)].sum());
+            }
+            matrix.put(type, byStatus);
+        }
+        return matrix;
+    }
+
+    private LongAdder cell(TransactionType type, TransactionStatus status) {
+        return cells[type != null ? row(type) : 0][status != null ? column(status) : 0];
+    }
+
+    private static int row(TransactionType type) {
+        return type.ordinal() + 1;
+    }
+
+    private static int column(TransactionStatus status) {
+        return status.ordinal() + 1;
+    }
+}
@@ -0,0 +1,147 @@
+package com.bank.transaction.service.index;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ordered indexes over the transaction store
+ * - A primary index holding every transaction key, newest first
+ * - Secondary posting sets per TransactionType and per TransactionStatus
+ * All sets share the TransactionKey ordering, so any of them can be walked
+ * in page order and abandoned as soon as a page is full
+ *
+ * Callers are expected to serialize writes for the same transaction ID
+ * (the service does this through ConcurrentHashMap.compute)
+ */
+public class TransactionIndex {
+
+    private final Postings primary = new Postings();
+
+    // One posting set per enum constant, created up front so lookups never allocate
+    private final Map<TransactionType, Postings> typePostings = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionStatus, Postings> statusPostings = new EnumMap<>(TransactionStatus.class);
+
+    public TransactionIndex() {
+        for (TransactionType type : TransactionType.values()) {
+            typePostings.put(type, new Postings());
+        }
+        for (TransactionStatus status : TransactionStatus.values()) {
+            statusPostings.put(status, new Postings());
+        }
+    }
+
+    /**
+     * Adds a newly stored transaction to the indexes
+     *
+     * @param transaction Stored transaction (must have an ID)
+     */
+    public void add(Transaction transaction) {
+        TransactionKey key = TransactionKey.of(transaction);
+        primary.add(key);
+        if (transaction.getType() != null) {
+            typePostings.get(transaction.getType()).add(key);
+        }
+        if (transaction.getStatus() != null) {
+            statusPostings.get(transaction.getStatus()).add(key);
+        }
+    }
+
+    /**
+     * Removes a transaction from the indexes
+     *
+     * @param transaction Transaction as it was last indexed
+     */
+    public void remove(Transaction transaction) {
+        TransactionKey key = TransactionKey.of(transaction);
+        primary.remove(key);
+        if (transaction.getType() != null) {
+            typePostings.get(transaction.getType()).remove(key);
+        }
+        if (transaction.getStatus() != null) {
+            statusPostings.get(transaction.getStatus()).remove(key);
+        }
+    }
+
+    /**
+     * Re-indexes a transaction whose contents were replaced
+     * Only the sets affected by a changed timestamp, type or status are touched
+     *
+     * @param previous Transaction as it was last indexed
+     * @param current Replacement transaction with the same ID
+     */
+    public void update(Transaction previous, Transaction current) {
+        TransactionKey previousKey = TransactionKey.of(previous);
+        TransactionKey currentKey = TransactionKey.of(current);
+        if (!previousKey.equals(currentKey)) {
+            // The sort position moved, so every set holding the old key needs the new one
+            remove(previous);
+            add(current);
+            return;
+        }
+        if (previous.getType() != current.getType()) {
+            if (previous.getType() != null) {
+                typePostings.get(previous.getType()).remove(previousKey);
+            }
+            if (current.getType() != null) {
+                typePostings.get(current.getType()).add(currentKey);
+            }
+        }
+        if (previous.getStatus() != current.getStatus()) {
+            if (previous.getStatus() != null) {
+                statusPostings.get(previous.getStatus()).remove(previousKey);
+            }
+            if (current.getStatus() != null) {
+                statusPostings.get(current.getStatus()).add(currentKey);
+            }
+        }
+    }
+
+    /**
+     * Picks the ordered key set to drive a query
+     * When both filters are present the smaller set is returned; the caller still
+     * has to check the other predicate on each candidate
+     *
+     * @param type Transaction type filter (optional)
+     * @param status Transaction status filter (optional)
+     * @return Candidate keys, newest first; the primary index when no filter applies
+     */
+    public NavigableSet<TransactionKey> candidates(TransactionType type, TransactionStatus status) {
+        Postings byType = type != null ? typePostings.get(type) : null;
+        Postings byStatus = status != null ? statusPostings.get(status) : null;
+        if (byType == null) {
+            return byStatus != null ? byStatus.keys : primary.keys;
+        }
+        if (byStatus == null) {
+            return byType.keys;
+        }
+        return byStatus.size.get() <= byType.size.get() ? byStatus.keys : byType.keys;
+    }
+
+    /**
+     * A sorted set of transaction keys with a cheap size
+     * (ConcurrentSkipListSet.size() walks the whole set)
+     */
+    private static final class Postings {
+        private final NavigableSet<TransactionKey> keys = new ConcurrentSkipListSet<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(TransactionKey key) {
+            if (keys.add(key)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(TransactionKey key) {
+            if (keys.remove(key)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.bank.transaction.service.index;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.util.DateTimeUtils;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Sort key used by the ordered transaction indexes
+ * Orders newest first: by timestamp descending, then by ID descending to break ties
+ * (Snowflake IDs are time-ordered, so the tie-break follows creation order)
+ *
+ * @param timestamp Transaction timestamp in epoch milliseconds (UTC), Long.MIN_VALUE if absent
+ * @param id Transaction ID
+ */
+public record TransactionKey(long timestamp, long id) implements Comparable<TransactionKey> {
+
+    /**
+     * Builds the key for a stored transaction
+     *
+     * @param transaction Transaction with an ID
+     * @return Index key
+     */
+    public static TransactionKey of(Transaction transaction) {
+        return new TransactionKey(toEpochMillis(transaction.getTimestamp()), transaction.getId());
+    }
+
+    /**
+     * Converts a transaction timestamp to the key's epoch-millis form
+     *
+     * @param timestamp Transaction timestamp (optional)
+     * @return Epoch milliseconds, Long.MIN_VALUE for null so such rows sort last
+     */
+    public static long toEpochMillis(LocalDateTime timestamp) {
+        return DateTimeUtils.toEpochMillis(timestamp);
+    }
+
+    /**
+     * Encodes the key as an opaque, URL-safe pagination cursor
+     *
+     * @return Cursor string
+     */
+    public String toCursor() {
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_BYTES).putLong(timestamp).putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #toCursor()}
+     *
+     * @param cursor Cursor string
+     * @return Key the cursor points at
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static TransactionKey fromCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (bytes.length != CURSOR_BYTES) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new TransactionKey(buffer.getLong(), buffer.getLong());
+    }
+
+    private static final int CURSOR_BYTES = 2 * Long.BYTES;
+
+    @Override
+    public int compareTo(TransactionKey other) {
+        int byTime = Long.compare(other.timestamp, timestamp);
+        return byTime != 0 ? byTime : Long.compare(other.id, id);
+    }
+}
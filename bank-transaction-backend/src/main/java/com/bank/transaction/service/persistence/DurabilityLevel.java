@@ -0,0 +1,22 @@
+package com.bank.transaction.service.persistence;
+
+/**
+ * How long a write waits for the write-ahead log before it returns
+ */
+public enum DurabilityLevel {
+    /**
+     * Returns once the record is queued; the last sync interval can be lost on a crash
+     */
+    ASYNC,
+
+    /**
+     * Returns once the record is written to the operating system; survives a process crash
+     * but not a power loss before the next periodic sync
+     */
+    WRITE,
+
+    /**
+     * Returns once the record is on disk; concurrent writes share one fsync (group commit)
+     */
+    FSYNC
+}
@@ -0,0 +1,319 @@
+package com.bank.transaction.service.persistence;
+
+import com.bank.transaction.model.Transaction;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary snapshots of the transaction store, kept next to the write-ahead log
+ *
+ * A snapshot is taken at a log sequence number: every change up to that LSN is in it, and
+ * later changes may or may not be. Replaying the log after the LSN on top of it therefore
+ * gives the exact state, because records are full images (PUT) or deletes, applied in order.
+ * This lets the snapshot be written while writers keep running.
+ *
+ * File layout (big-endian): magic int | version int | lsn long | record count long,
+ * then blocks of about 1MB: record count int | byte length int | CRC32C int | records,
+ * each record being a length int followed by its TransactionCodec bytes.
+ * Blocks are independent, so recovery memory-maps and decodes them in parallel.
+ */
+@Component
+public class SnapshotManager implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotManager.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x4254534E;
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int BLOCK_HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int BLOCK_BYTES = 1 << 20;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long minRecords;
+
+    private volatile long snapshotLsn;
+    private final LongAdder snapshotsWritten = new LongAdder();
+
+    // Filled in once by the service after startup recovery
+    private volatile long recoveryMillis;
+    private volatile long recoveredSnapshotRecords;
+    private volatile long recoveredLogRecords;
+
+    public SnapshotManager(@Value("${transaction.wal.enabled:false}") boolean enabled,
+                           @Value("${transaction.wal.directory:data/wal}") Path directory,
+                           @Value("${transaction.wal.snapshot.min-records:100000}") long minRecords) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.minRecords = minRecords;
+    }
+
+    /**
+     * Whether enough has been logged since the last snapshot to write a new one
+     *
+     * @param lastLsn Current end of the write-ahead log
+     */
+    public boolean isDue(long lastLsn) {
+        return enabled && lastLsn - snapshotLsn >= minRecords;
+    }
+
+    /**
+     * Writes a snapshot and makes it the latest, removing older ones
+     * The file is written under a temporary name and renamed once synced, so a crash
+     * never leaves a partial snapshot behind
+     *
+     * @param lsn LSN the snapshot covers
+     * @param transactions Store contents, read after every change up to lsn was applied
+     * @return Number of transactions written
+     */
+    public long write(long lsn, Stream<Transaction> transactions) {
+        long start = System.nanoTime();
+        Path target = snapshotPath(lsn);
+        Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(FILE_HEADER_BYTES);
+            ByteBuffer block = ByteBuffer.allocate(BLOCK_BYTES + BLOCK_HEADER_BYTES);
+            block.position(BLOCK_HEADER_BYTES);
+            int blockRecords = 0;
+
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                byte[] record = TransactionCodec.encode(iterator.next());
+                if (block.position() + Integer.BYTES + record.length > block.capacity()) {
+                    if (blockRecords > 0) {
+                        writeBlock(channel, block, blockRecords);
+                        blockRecords = 0;
+                    }
+                    if (Integer.BYTES + record.length > block.remaining()) {
+                        block = ByteBuffer.allocate(BLOCK_HEADER_BYTES + Integer.BYTES + record.length);
+                        block.position(BLOCK_HEADER_BYTES);
+                    }
+                }
+                block.putInt(record.length).put(record);
+                blockRecords++;
+                count++;
+            }
+            if (blockRecords > 0) {
+                writeBlock(channel, block, blockRecords);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES)
+                    .putInt(SNAPSHOT_MAGIC).putInt(FORMAT_VERSION).putLong(lsn).putLong(count);
+            channel.write(header.flip(), 0);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot " + target, e);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+            for (Path snapshot : listSnapshots()) {
+                if (!snapshot.equals(target)) {
+                    Files.deleteIfExists(snapshot);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to publish snapshot " + target, e);
+        }
+        snapshotLsn = lsn;
+        snapshotsWritten.increment();
+        logger.info("Wrote snapshot of {} transactions at LSN {} in {} ms", count, lsn,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return count;
+    }
+
+    /**
+     * Loads the latest snapshot, decoding its blocks in parallel
+     *
+     * @param handler Receives every transaction; called concurrently from several threads
+     * @return LSN the snapshot covers, 0 when there is none
+     */
+    public long load(Consumer<Transaction> handler) {
+        if (!enabled) {
+            return 0;
+        }
+        try {
+            Files.createDirectories(directory);
+            deleteTempFiles();
+            List<Path> snapshots = listSnapshots();
+            if (snapshots.isEmpty()) {
+                return 0;
+            }
+            Path latest = snapshots.get(snapshots.size() - 1);
+            try (FileChannel channel = FileChannel.open(latest, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+                readFully(channel, header, 0);
+                header.flip();
+                if (header.getInt() != SNAPSHOT_MAGIC || header.getInt() != FORMAT_VERSION) {
+                    throw new IllegalStateException("Not a transaction snapshot: " + latest);
+                }
+                long lsn = header.getLong();
+                long count = header.getLong();
+
+                List<MappedByteBuffer> blocks = mapBlocks(channel, latest);
+                blocks.parallelStream().forEach(block -> decodeBlock(block, latest, handler));
+                snapshotLsn = lsn;
+                recoveredSnapshotRecords = count;
+                logger.info("Loaded snapshot of {} transactions at LSN {} from {} blocks", count, lsn, blocks.size());
+                return lsn;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load snapshot", e);
+        }
+    }
+
+    /**
+     * Records how long startup recovery took, for the recovery metrics
+     *
+     * @param duration Time spent loading the snapshot and replaying the log
+     * @param logRecords Number of log records replayed after the snapshot
+     */
+    public void recordRecovery(Duration duration, long logRecords) {
+        recoveryMillis = duration.toMillis();
+        recoveredLogRecords = logRecords;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("transaction.recovery.duration", this, TimeUnit.MILLISECONDS, manager -> manager.recoveryMillis)
+                .description("Time spent restoring the store from the snapshot and write-ahead log at startup")
+                .register(registry);
+        Gauge.builder("transaction.recovery.snapshot.records", this, manager -> manager.recoveredSnapshotRecords)
+                .description("Transactions loaded from the snapshot at startup")
+                .register(registry);
+        Gauge.builder("transaction.recovery.log.records", this, manager -> manager.recoveredLogRecords)
+                .description("Write-ahead log records replayed at startup")
+                .register(registry);
+        Gauge.builder("transaction.snapshot.lsn", this, manager -> manager.snapshotLsn)
+                .description("Log sequence number covered by the latest snapshot")
+                .register(registry);
+        FunctionCounter.builder("transaction.snapshot.written", snapshotsWritten, LongAdder::sum)
+                .description("Snapshots written since startup")
+                .register(registry);
+    }
+
+    private static void writeBlock(FileChannel channel, ByteBuffer block, int records) throws IOException {
+        int length = block.position() - BLOCK_HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(block.array(), BLOCK_HEADER_BYTES, length);
+        block.putInt(0, records).putInt(Integer.BYTES, length).putInt(2 * Integer.BYTES, (int) crc.getValue());
+        block.flip();
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        block.clear();
+        block.position(BLOCK_HEADER_BYTES);
+    }
+
+    /**
+     * Walks the block headers and maps each block, header included
+     */
+    private static List<MappedByteBuffer> mapBlocks(FileChannel channel, Path path) throws IOException {
+        List<MappedByteBuffer> blocks = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+        long position = FILE_HEADER_BYTES;
+        long size = channel.size();
+        while (position < size) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.getInt(Integer.BYTES);
+            if (length < 0 || position + BLOCK_HEADER_BYTES + length > size) {
+                throw new IllegalStateException("Corrupt snapshot " + path + " at offset " + position);
+            }
+            blocks.add(channel.map(FileChannel.MapMode.READ_ONLY, position, BLOCK_HEADER_BYTES + length));
+            position += BLOCK_HEADER_BYTES + length;
+        }
+        return blocks;
+    }
+
+    private static void decodeBlock(MappedByteBuffer block, Path path, Consumer<Transaction> handler) {
+        int records = block.getInt();
+        int length = block.getInt();
+        int expectedChecksum = block.getInt();
+        CRC32C crc = new CRC32C();
+        crc.update(block.slice(BLOCK_HEADER_BYTES, length));
+        if ((int) crc.getValue() != expectedChecksum) {
+            throw new IllegalStateException("Corrupt snapshot block in " + path);
+        }
+        for (int i = 0; i < records; i++) {
+            int recordLength = block.getInt();
+            handler.accept(TransactionCodec.decode(block.slice(block.position(), recordLength)));
+            block.position(block.position() + recordLength);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of snapshot");
+            }
+        }
+    }
+
+    /**
+     * Removes snapshots that were being written when the process stopped
+     */
+    private void deleteTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Directory sync not supported: {}", e.getMessage());
+        }
+    }
+
+    private Path snapshotPath(long lsn) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX));
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.bank.transaction.service.persistence;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary form of a Transaction, shared by the write-ahead log and snapshots
+ * Lossless, unlike the off-heap columns: amounts keep their scale and dates their nanoseconds
+ *
+ * Layout (big-endian):
+ * id long | type byte | status byte | amount (scale int, length int, unscaled bytes) |
+ * timestamp, processingDate (epoch second long, nano int) |
+ * description, sourceAccount, destinationAccount, bankReference (length int, UTF-8 bytes) |
+ * version long
+ * Nulls are written as ordinal -1, length -1, epoch second Long.MIN_VALUE or version 0
+ * (versions start at 1). Records are read from length-bounded slices, so records written
+ * before the version was added still decode, with a null version.
+ */
+public final class TransactionCodec {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final byte NULL_ORDINAL = -1;
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_EPOCH_SECOND = Long.MIN_VALUE;
+    private static final long NULL_VERSION = 0L;
+
+    private static final int FIXED_BYTES = Long.BYTES + 2 + 2 * Integer.BYTES
+            + 2 * (Long.BYTES + Integer.BYTES) + 4 * Integer.BYTES + Long.BYTES;
+
+    private TransactionCodec() {
+    }
+
+    /**
+     * Encodes a transaction
+     *
+     * @param transaction Transaction with an ID
+     * @return Encoded bytes
+     */
+    public static byte[] encode(Transaction transaction) {
+        byte[] unscaled = transaction.getAmount() == null ? null : transaction.getAmount().unscaledValue().toByteArray();
+        byte[] description = utf8(transaction.getDescription());
+        byte[] sourceAccount = utf8(transaction.getSourceAccount());
+        byte[] destinationAccount = utf8(transaction.getDestinationAccount());
+        byte[] bankReference = utf8(transaction.getBankReference());
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_BYTES + length(unscaled) + length(description)
+                + length(sourceAccount) + length(destinationAccount) + length(bankReference));
+        buffer.putLong(transaction.getId());
+        buffer.put(transaction.getType() == null ? NULL_ORDINAL : (byte) transaction.getType().ordinal());
+        buffer.put(transaction.getStatus() == null ? NULL_ORDINAL : (byte) transaction.getStatus().ordinal());
+        buffer.putInt(transaction.getAmount() == null ? 0 : transaction.getAmount().scale());
+        putBytes(buffer, unscaled);
+        putDateTime(buffer, transaction.getTimestamp());
+        putDateTime(buffer, transaction.getProcessingDate());
+        putBytes(buffer, description);
+        putBytes(buffer, sourceAccount);
+        putBytes(buffer, destinationAccount);
+        putBytes(buffer, bankReference);
+        buffer.putLong(transaction.getVersion() == null ? NULL_VERSION : transaction.getVersion());
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a transaction written by {@link #encode}, advancing the buffer past it
+     *
+     * @param buffer Buffer positioned at an encoded transaction
+     * @return Decoded transaction
+     */
+    public static Transaction decode(ByteBuffer buffer) {
+        Transaction transaction = new Transaction();
+        transaction.setId(buffer.getLong());
+        byte type = buffer.get();
+        transaction.setType(type == NULL_ORDINAL ? null : TYPES[type]);
+        byte status = buffer.get();
+        transaction.setStatus(status == NULL_ORDINAL ? null : STATUSES[status]);
+        int scale = buffer.getInt();
+        byte[] unscaled = getBytes(buffer, buffer.getInt());
+        transaction.setAmount(unscaled == null ? null : new BigDecimal(new BigInteger(unscaled), scale));
+        transaction.setTimestamp(getDateTime(buffer));
+        transaction.setProcessingDate(getDateTime(buffer));
+        transaction.setDescription(getString(buffer));
+        transaction.setSourceAccount(getString(buffer));
+        transaction.setDestinationAccount(getString(buffer));
+        transaction.setBankReference(getString(buffer));
+        long version = buffer.remaining() >= Long.BYTES ? buffer.getLong() : NULL_VERSION;
+        transaction.setVersion(version == NULL_VERSION ? null : version);
+        return transaction;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes == null ? NULL_LENGTH : bytes.length);
+        if (bytes != null) {
+            buffer.put(bytes);
+        }
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer, int length) {
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = getBytes(buffer, buffer.getInt());
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            buffer.putLong(NULL_EPOCH_SECOND).putInt(0);
+        } else {
+            buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+        }
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        return epochSecond == NULL_EPOCH_SECOND ? null : LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.transaction.service.persistence;
+
+import com.bank.transaction.model.Transaction;
+
+/**
+ * One replayed write-ahead log entry
+ *
+ * @param lsn Log sequence number, increasing by one per record
+ * @param type Kind of change
+ * @param id Transaction ID
+ * @param transaction Full transaction for PUT records, null for DELETE
+ */
+public record WalRecord(long lsn, Type type, long id, Transaction transaction) {
+
+    public enum Type {
+        /**
+         * Transaction created or replaced
+         */
+        PUT,
+
+        /**
+         * Transaction deleted
+         */
+        DELETE
+    }
+}
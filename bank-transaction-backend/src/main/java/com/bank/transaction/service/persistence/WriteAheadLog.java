@@ -0,0 +1,570 @@
+package com.bank.transaction.service.persistence;
+
+import com.bank.transaction.model.Transaction;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of transaction changes
+ *
+ * Writers append a record while they hold the store's per-ID lock, so the log order matches
+ * the order changes were applied, then wait for it outside the lock with {@link #await}.
+ * The record is encoded before the global append lock is taken, and under it an append only
+ * takes the next LSN and copies the bytes into an in-memory batch. A single flusher thread
+ * checksums the batch and writes it with one write call and, for {@link DurabilityLevel#FSYNC},
+ * one fsync. Writes arriving while a batch is being synced form the next batch (group commit).
+ *
+ * The log is a directory of segment files named after their first log sequence number.
+ * Each segment starts with a magic number and format version, followed by records:
+ * length int | CRC32C int | type byte | lsn long | payload
+ * The CRC covers everything after it. A torn record at the end of the last segment
+ * (a crash in the middle of a write) is truncated on recovery.
+ */
+@Component
+public class WriteAheadLog implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final int SEGMENT_MAGIC = 0x4254574C;
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MIN_BODY_BYTES = 1 + Long.BYTES;
+    private static final int MAX_BODY_BYTES = 1 << 24;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final WalRecord.Type[] TYPES = WalRecord.Type.values();
+
+    private final boolean enabled;
+    private final Path directory;
+    private final DurabilityLevel durability;
+    private final long segmentSize;
+    private final long syncIntervalNanos;
+
+    // Appenders fill the pending batch; the flusher swaps it with the one it has just written
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition hasPending = appendLock.newCondition();
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer flushing = ByteBuffer.allocate(1 << 16);
+    private long lastLsn;
+    private boolean open;
+    private boolean closed;
+
+    // Writers waiting in await() are woken after every batch
+    private final ReentrantLock flushedLock = new ReentrantLock();
+    private final Condition flushed = flushedLock.newCondition();
+    private volatile long writtenLsn;
+    private volatile long syncedLsn;
+    private volatile IOException failure;
+
+    // Only touched by the flusher thread once the log is open
+    private final CRC32C checksum = new CRC32C();
+    private FileChannel channel;
+    private Thread flusher;
+
+    private final LongAdder appendedRecords = new LongAdder();
+    private final LongAdder writtenBytes = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder rejectedRecords = new LongAdder();
+
+    public WriteAheadLog(@Value("${transaction.wal.enabled:false}") boolean enabled,
+                         @Value("${transaction.wal.directory:data/wal}") Path directory,
+                         @Value("${transaction.wal.durability:WRITE}") DurabilityLevel durability,
+                         @Value("${transaction.wal.segment-size:64MB}") DataSize segmentSize,
+                         @Value("${transaction.wal.sync-interval:10ms}") Duration syncInterval) {
+        if (segmentSize.toKilobytes() < 1 || segmentSize.toBytes() > DataSize.ofGigabytes(1).toBytes()) {
+            throw new IllegalArgumentException("WAL segment size must be between 1KB and 1GB");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.durability = durability;
+        this.segmentSize = segmentSize.toBytes();
+        this.syncIntervalNanos = syncInterval.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replays the log after a snapshot, then opens it for appending
+     * Must be called once, before the first append
+     *
+     * @param afterLsn LSN covered by the loaded snapshot; earlier records are skipped
+     * @param handler Receives the records in log order; a record it throws on is logged and skipped
+     * @return Number of records replayed
+     */
+    public long recover(long afterLsn, Consumer<WalRecord> handler) {
+        if (!enabled) {
+            return 0;
+        }
+        appendLock.lock();
+        try {
+            if (open || closed) {
+                throw new IllegalStateException("Write-ahead log has already been opened");
+            }
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments();
+            long replayed = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                boolean last = i == segments.size() - 1;
+                if (!last && firstLsn(segments.get(i + 1)) <= afterLsn + 1) {
+                    // Entirely covered by the snapshot
+                    continue;
+                }
+                replayed += replaySegment(segments.get(i), last, afterLsn, handler);
+            }
+            lastLsn = Math.max(lastLsn, afterLsn);
+
+            Path last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            channel = openSegment(last != null && Files.size(last) < segmentSize ? last : segmentPath(lastLsn + 1));
+            writtenLsn = lastLsn;
+            syncedLsn = lastLsn;
+            open = true;
+
+            flusher = new Thread(this::flushLoop, "wal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+            logger.info("Write-ahead log opened in {} at LSN {} ({} durability)", directory, lastLsn, durability);
+            return replayed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover write-ahead log", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * LSN of the most recent append
+     */
+    public long lastLsn() {
+        appendLock.lock();
+        try {
+            return lastLsn;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments whose records are all covered by a snapshot
+     * The segment being written is always kept
+     *
+     * @param snapshotLsn LSN covered by a durable snapshot
+     */
+    public void discardThrough(long snapshotLsn) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Path> segments = listSegments();
+            for (int i = 0; i < segments.size() - 1; i++) {
+                if (firstLsn(segments.get(i + 1)) > snapshotLsn + 1) {
+                    break;
+                }
+                Files.deleteIfExists(segments.get(i));
+                logger.info("Discarded write-ahead log segment {}", segments.get(i).getFileName());
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to discard write-ahead log segments", e);
+        }
+    }
+
+    /**
+     * Logs a created or replaced transaction
+     *
+     * @param transaction Transaction as stored
+     * @return LSN to pass to {@link #await}, 0 when the log is disabled
+     */
+    public long appendPut(Transaction transaction) {
+        if (!enabled) {
+            return 0;
+        }
+        return append(WalRecord.Type.PUT, TransactionCodec.encode(transaction));
+    }
+
+    /**
+     * Logs a deleted transaction
+     *
+     * @param id Transaction ID
+     * @return LSN to pass to {@link #await}, 0 when the log is disabled
+     */
+    public long appendDelete(long id) {
+        if (!enabled) {
+            return 0;
+        }
+        return append(WalRecord.Type.DELETE, ByteBuffer.allocate(Long.BYTES).putLong(id).array());
+    }
+
+    /**
+     * Blocks until a record is as durable as the configured level requires
+     *
+     * @param lsn LSN returned by an append
+     * @throws IllegalStateException if the log can no longer be written
+     */
+    public void await(long lsn) {
+        if (lsn == 0 || durability == DurabilityLevel.ASYNC || reached(lsn)) {
+            return;
+        }
+        flushedLock.lock();
+        try {
+            while (!reached(lsn)) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            flushedLock.unlock();
+        }
+    }
+
+    /**
+     * Writes out and syncs everything appended so far, then stops the flusher
+     */
+    @PreDestroy
+    public void close() {
+        appendLock.lock();
+        try {
+            if (!open || closed) {
+                closed = true;
+                return;
+            }
+            closed = true;
+            hasPending.signal();
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+            channel.close();
+            logger.info("Write-ahead log closed at LSN {}", syncedLsn);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.error("Failed to close write-ahead log", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("transaction.wal.records", appendedRecords, LongAdder::sum)
+                .description("Records appended to the write-ahead log")
+                .register(registry);
+        FunctionCounter.builder("transaction.wal.written", writtenBytes, LongAdder::sum)
+                .description("Bytes written to the write-ahead log")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("transaction.wal.syncs", syncs, LongAdder::sum)
+                .description("fsync calls on the write-ahead log; records per sync shows group commit batching")
+                .register(registry);
+        FunctionCounter.builder("transaction.wal.rejected", rejectedRecords, LongAdder::sum)
+                .description("Records skipped at replay because they could not be applied")
+                .register(registry);
+        Gauge.builder("transaction.wal.lsn", this, log -> log.syncedLsn)
+                .description("Last log sequence number synced to disk")
+                .register(registry);
+    }
+
+    private long append(WalRecord.Type type, byte[] payload) {
+        int bodyLength = MIN_BODY_BYTES + payload.length;
+        appendLock.lock();
+        try {
+            if (!open || closed) {
+                throw new IllegalStateException("Write-ahead log is not open");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Write-ahead log failed", failure);
+            }
+            long lsn = ++lastLsn;
+            ensureCapacity(RECORD_HEADER_BYTES + bodyLength);
+            // The checksum is filled in by the flusher, off this lock
+            pending.putInt(bodyLength).putInt(0).put((byte) type.ordinal()).putLong(lsn).put(payload);
+            appendedRecords.increment();
+            hasPending.signal();
+            return lsn;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            grown.put(pending.flip());
+            pending = grown;
+        }
+    }
+
+    private boolean reached(long lsn) {
+        long durable = durability == DurabilityLevel.FSYNC ? syncedLsn : writtenLsn;
+        if (durable >= lsn) {
+            return true;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Write-ahead log failed", failure);
+        }
+        return false;
+    }
+
+    private void flushLoop() {
+        long lastSync = System.nanoTime();
+        while (true) {
+            ByteBuffer batch;
+            long batchLsn;
+            boolean closing;
+            appendLock.lock();
+            try {
+                awaitWork(lastSync);
+                batch = pending;
+                pending = flushing;
+                flushing = batch;
+                batchLsn = lastLsn;
+                closing = closed;
+            } finally {
+                appendLock.unlock();
+            }
+
+            try {
+                if (batch.position() > 0) {
+                    seal(batch);
+                    batch.flip();
+                    writtenBytes.add(batch.remaining());
+                    while (batch.hasRemaining()) {
+                        channel.write(batch);
+                    }
+                    batch.clear();
+                    writtenLsn = batchLsn;
+                }
+                boolean syncDue = durability == DurabilityLevel.FSYNC || closing
+                        || System.nanoTime() - lastSync >= syncIntervalNanos;
+                if (syncDue && syncedLsn < writtenLsn) {
+                    sync();
+                    lastSync = System.nanoTime();
+                }
+                if (channel.position() >= segmentSize) {
+                    roll();
+                }
+            } catch (IOException e) {
+                logger.error("Write-ahead log write failed; further writes will be rejected", e);
+                failure = e;
+                signalFlushed();
+                return;
+            }
+            signalFlushed();
+            if (closing) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits until there is a batch to write, a periodic sync is due or the log is closing
+     * Called with appendLock held
+     */
+    private void awaitWork(long lastSync) {
+        while (pending.position() == 0 && !closed) {
+            if (syncedLsn == writtenLsn) {
+                hasPending.awaitUninterruptibly();
+                continue;
+            }
+            long remaining = syncIntervalNanos - (System.nanoTime() - lastSync);
+            if (remaining <= 0) {
+                return;
+            }
+            try {
+                hasPending.awaitNanos(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fills in the checksum of every record in a batch
+     */
+    private void seal(ByteBuffer batch) {
+        int position = 0;
+        while (position < batch.position()) {
+            int bodyLength = batch.getInt(position);
+            checksum.reset();
+            checksum.update(batch.array(), position + RECORD_HEADER_BYTES, bodyLength);
+            batch.putInt(position + Integer.BYTES, (int) checksum.getValue());
+            position += RECORD_HEADER_BYTES + bodyLength;
+        }
+    }
+
+    private void sync() throws IOException {
+        long lsn = writtenLsn;
+        channel.force(false);
+        syncs.increment();
+        syncedLsn = lsn;
+    }
+
+    private void signalFlushed() {
+        flushedLock.lock();
+        try {
+            flushed.signalAll();
+        } finally {
+            flushedLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment once the current one is full
+     */
+    private void roll() throws IOException {
+        if (syncedLsn < writtenLsn) {
+            sync();
+        }
+        channel.close();
+        channel = openSegment(segmentPath(writtenLsn + 1));
+    }
+
+    private FileChannel openSegment(Path path) throws IOException {
+        FileChannel segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (segment.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES).putInt(SEGMENT_MAGIC).putInt(FORMAT_VERSION);
+            segment.write(header.flip());
+            segment.force(true);
+            syncDirectory();
+        }
+        segment.position(segment.size());
+        return segment;
+    }
+
+    /**
+     * Makes a newly created segment file itself durable; not supported on every platform
+     */
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Directory sync not supported: {}", e.getMessage());
+        }
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private Path segmentPath(long firstLsn) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Replays one segment through memory-mapped reads
+     * A damaged record ends the log: in the last segment it is a torn write and is truncated,
+     * anywhere else it means the log is corrupt and recovery stops.
+     * A record the handler rejects is intact but unusable: it is skipped so it cannot block every later start
+     */
+    private long replaySegment(Path path, boolean last, long afterLsn, Consumer<WalRecord> handler) throws IOException {
+        long replayed = 0;
+        long validEnd;
+        try (FileChannel segment = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = segment.map(FileChannel.MapMode.READ_ONLY, 0, segment.size());
+            if (buffer.remaining() < SEGMENT_HEADER_BYTES
+                    || buffer.getInt() != SEGMENT_MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                validEnd = 0;
+            } else {
+                validEnd = buffer.position();
+                WalRecord record;
+                while ((record = readRecord(buffer)) != null) {
+                    if (record.lsn() > afterLsn) {
+                        try {
+                            handler.accept(record);
+                            replayed++;
+                        } catch (RuntimeException e) {
+                            rejectedRecords.increment();
+                            logger.error("Skipping write-ahead log record {} ({} of transaction {}): {}",
+                                    record.lsn(), record.type(), record.id(), e.toString());
+                        }
+                    }
+                    lastLsn = record.lsn();
+                    validEnd = buffer.position();
+                }
+            }
+            if (validEnd == segment.size()) {
+                return replayed;
+            }
+        }
+        if (!last) {
+            throw new IllegalStateException("Corrupt write-ahead log segment " + path + " at offset " + validEnd);
+        }
+        logger.warn("Truncating torn write-ahead log tail in {} at offset {}", path, validEnd);
+        try (FileChannel segment = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            segment.truncate(validEnd);
+            segment.force(true);
+        }
+        return replayed;
+    }
+
+    /**
+     * Reads the record at the buffer's position
+     *
+     * @return Record, or null at the end of the segment or at a damaged record
+     */
+    private WalRecord readRecord(ByteBuffer buffer) {
+        if (buffer.remaining() < RECORD_HEADER_BYTES) {
+            return null;
+        }
+        int start = buffer.position();
+        int bodyLength = buffer.getInt();
+        int expectedChecksum = buffer.getInt();
+        if (bodyLength < MIN_BODY_BYTES || bodyLength > MAX_BODY_BYTES || buffer.remaining() < bodyLength) {
+            buffer.position(start);
+            return null;
+        }
+        ByteBuffer body = buffer.slice(buffer.position(), bodyLength);
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        byte type = body.get();
+        long lsn = body.getLong();
+        if ((int) crc.getValue() != expectedChecksum || type < 0 || type >= TYPES.length || lsn <= lastLsn) {
+            buffer.position(start);
+            return null;
+        }
+        buffer.position(buffer.position() + bodyLength);
+
+        if (TYPES[type] == WalRecord.Type.DELETE) {
+            return new WalRecord(lsn, WalRecord.Type.DELETE, body.getLong(), null);
+        }
+        Transaction transaction = TransactionCodec.decode(body);
+        return new WalRecord(lsn, WalRecord.Type.PUT, transaction.getId(), transaction);
+    }
+}
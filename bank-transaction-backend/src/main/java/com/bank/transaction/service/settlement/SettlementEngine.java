@@ -0,0 +1,310 @@
+package com.bank.transaction.service.settlement;
+
+import com.bank.transaction.model.AccountBalance;
+import com.bank.transaction.model.StatusChange;
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionQuery;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.service.TransactionsCreatedEvent;
+import com.bank.transaction.service.TransactionsUpdatedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * In-process settlement: moves new transactions through PROCESSING to COMPLETED or FAILED
+ *
+ * Created transactions arrive through {@link TransactionsCreatedEvent}, and transactions updated
+ * back to INITIATED or PENDING through {@link TransactionsUpdatedEvent}; both are queued by ID on
+ * one of several workers, chosen by the account they debit (the destination for deposits).
+ * Each worker owns a bounded ring buffer and drains it in batches, so all debits of an account
+ * are settled in order by one thread and no lock is shared between workers. A batch is applied
+ * with two bulk writes: first everything to PROCESSING, then each transaction to its outcome
+ * with a bank reference and processing date.
+ *
+ * With transaction.settlement.check-funds on, a debit fails if it exceeds the settled balance
+ * of its source account, less the debits already accepted in the same batch; otherwise every
+ * transaction completes.
+ *
+ * When a ring is full the ID is dropped and a sweep is scheduled, as it is when a batch skips a
+ * change because the transaction moved on meanwhile; the sweep, also run once after startup for
+ * recovered transactions, re-queues everything still unsettled.
+ *
+ * Off unless transaction.settlement.enabled is true, as it changes transactions on its own.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.settlement.enabled", havingValue = "true")
+public class SettlementEngine implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(SettlementEngine.class);
+
+    private static final Set<TransactionStatus> UNSETTLED =
+            EnumSet.of(TransactionStatus.INITIATED, TransactionStatus.PENDING, TransactionStatus.PROCESSING);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private final ArrayBlockingQueue<Long>[] rings;
+    private final Thread[] workers;
+    private final int batchSize;
+    private final boolean checkFunds;
+    private final AtomicBoolean sweepNeeded = new AtomicBoolean(true);
+    private volatile boolean running = true;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public SettlementEngine(@Value("${transaction.settlement.workers:0}") int workerCount,
+                            @Value("${transaction.settlement.queue-capacity:65536}") int queueCapacity,
+                            @Value("${transaction.settlement.batch-size:512}") int batchSize,
+                            @Value("${transaction.settlement.check-funds:true}") boolean checkFunds) {
+        if (queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Settlement queue capacity and batch size must be at least 1");
+        }
+        int count = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.checkFunds = checkFunds;
+        this.rings = new ArrayBlockingQueue[count];
+        this.workers = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            ArrayBlockingQueue<Long> ring = new ArrayBlockingQueue<>(queueCapacity);
+            rings[i] = ring;
+            workers[i] = new Thread(() -> drain(ring), "settlement-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        logger.info("Settlement engine started with {} workers, {} slots each, batches of {}",
+                count, queueCapacity, batchSize);
+    }
+
+    /**
+     * Queues newly created transactions that still need settling
+     * Never blocks the creating thread: IDs that do not fit are left to the next sweep
+     */
+    @EventListener
+    public void onCreated(TransactionsCreatedEvent event) {
+        for (Transaction transaction : event.transactions()) {
+            if (UNSETTLED.contains(transaction.getStatus())) {
+                enqueue(transaction);
+            }
+        }
+    }
+
+    /**
+     * Queues transactions that an update left waiting for settlement, such as one moved on to PENDING or amended before settling
+     * The engine's own moves to PROCESSING and to an outcome are not queued again
+     */
+    @EventListener
+    public void onUpdated(TransactionsUpdatedEvent event) {
+        for (Transaction transaction : event.transactions()) {
+            if (transaction.getStatus() == TransactionStatus.INITIATED || transaction.getStatus() == TransactionStatus.PENDING) {
+                enqueue(transaction);
+            }
+        }
+    }
+
+    /**
+     * Re-queues unsettled transactions after startup, after a ring overflowed or after skipped changes
+     */
+    @Scheduled(fixedDelayString = "${transaction.settlement.sweep-interval:PT30S}",
+            initialDelayString = "${transaction.settlement.sweep-interval:PT30S}")
+    public void sweep() {
+        if (!sweepNeeded.getAndSet(false)) {
+            return;
+        }
+        long queued = 0;
+        for (TransactionStatus status : UNSETTLED) {
+            try (Stream<Transaction> unsettled = transactionService.streamTransactions(
+                    new TransactionQuery(0, 1, null, status, null))) {
+                for (Iterator<Transaction> it = unsettled.iterator(); it.hasNext(); queued++) {
+                    enqueue(it.next());
+                }
+            }
+        }
+        logger.info("Settlement sweep queued {} unsettled transactions", queued);
+    }
+
+    /**
+     * Transactions waiting in all rings
+     */
+    public int backlog() {
+        int backlog = 0;
+        for (ArrayBlockingQueue<Long> ring : rings) {
+            backlog += ring.size();
+        }
+        return backlog;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transaction.settlement.backlog", this, SettlementEngine::backlog)
+                .description("Transactions queued for settlement")
+                .register(registry);
+        FunctionCounter.builder("transaction.settlement.settled", completed, LongAdder::sum)
+                .description("Transactions settled since startup")
+                .tag("outcome", "completed")
+                .register(registry);
+        FunctionCounter.builder("transaction.settlement.settled", failed, LongAdder::sum)
+                .description("Transactions settled since startup")
+                .tag("outcome", "failed")
+                .register(registry);
+        FunctionCounter.builder("transaction.settlement.batches", batches, LongAdder::sum)
+                .description("Settlement batches applied since startup")
+                .register(registry);
+        FunctionCounter.builder("transaction.settlement.overflow", overflowed, LongAdder::sum)
+                .description("Transactions left for the sweep because their ring was full")
+                .register(registry);
+    }
+
+    private void enqueue(Transaction transaction) {
+        if (!rings[shardOf(transaction)].offer(transaction.getId())) {
+            overflowed.increment();
+            sweepNeeded.set(true);
+        }
+    }
+
+    private int shardOf(Transaction transaction) {
+        String account = transaction.getSourceAccount() != null
+                ? transaction.getSourceAccount()
+                : transaction.getDestinationAccount();
+        int hash = account != null ? account.hashCode() : Long.hashCode(transaction.getId());
+        return Math.floorMod(hash, rings.length);
+    }
+
+    private void drain(ArrayBlockingQueue<Long> ring) {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = ring.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                ring.drainTo(batch, batchSize - 1);
+                settle(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // The batch stays unsettled in the store; the sweep picks it up again
+                logger.error("Settlement batch of {} failed: {}", batch.size(), e.getMessage());
+                sweepNeeded.set(true);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Settles one batch of transactions, all owned by this worker
+     */
+    void settle(List<Long> ids) {
+        List<StatusChange> toProcessing = new ArrayList<>();
+        List<Transaction> processing = new ArrayList<>();
+        // Read past the cache: settlement touches each transaction a few times in quick succession
+        for (Transaction transaction : transactionService.getTransactionsById(ids)) {
+            if (transaction.getStatus() == TransactionStatus.PROCESSING) {
+                processing.add(transaction);
+            } else if (UNSETTLED.contains(transaction.getStatus())) {
+                toProcessing.add(new StatusChange(transaction.getId(), transaction.getVersion(),
+                        TransactionStatus.PROCESSING, null, null));
+            }
+        }
+        List<Transaction> started = transactionService.applyStatusChanges(toProcessing);
+        if (started.size() < toProcessing.size()) {
+            // Changed by someone else since it was read; the sweep looks at it again
+            sweepNeeded.set(true);
+        }
+        processing.addAll(started);
+
+        // IDs are time-ordered, so this settles the batch in creation order
+        processing.sort(Comparator.comparing(Transaction::getId));
+        LocalDateTime processedAt = LocalDateTime.now();
+        Map<String, BigDecimal> available = new HashMap<>();
+        List<StatusChange> outcomes = new ArrayList<>(processing.size());
+        for (Transaction transaction : processing) {
+            TransactionStatus outcome = reserveFunds(transaction, available)
+                    ? TransactionStatus.COMPLETED
+                    : TransactionStatus.FAILED;
+            String reference = transaction.getBankReference() != null
+                    ? null
+                    : "STL" + Long.toString(transaction.getId(), 36).toUpperCase();
+            outcomes.add(new StatusChange(transaction.getId(), transaction.getVersion(), outcome, reference, processedAt));
+        }
+        List<Transaction> settled = transactionService.applyStatusChanges(outcomes);
+        if (settled.size() < outcomes.size()) {
+            sweepNeeded.set(true);
+        }
+        for (Transaction transaction : settled) {
+            (transaction.getStatus() == TransactionStatus.COMPLETED ? completed : failed).increment();
+        }
+        batches.increment();
+    }
+
+    /**
+     * Checks a transaction against the funds left in this batch and, if it can complete,
+     * moves its amount between the running balances of its accounts
+     */
+    private boolean reserveFunds(Transaction transaction, Map<String, BigDecimal> available) {
+        BigDecimal amount = transaction.getAmount();
+        if (!checkFunds || amount == null) {
+            return true;
+        }
+        String source = transaction.getSourceAccount();
+        if (source != null) {
+            BigDecimal balance = balanceOf(source, available);
+            if (balance.compareTo(amount) < 0) {
+                return false;
+            }
+            available.put(source, balance.subtract(amount));
+        }
+        String destination = transaction.getDestinationAccount();
+        if (destination != null) {
+            available.put(destination, balanceOf(destination, available).add(amount));
+        }
+        return true;
+    }
+
+    private BigDecimal balanceOf(String account, Map<String, BigDecimal> available) {
+        return available.computeIfAbsent(account, key -> {
+            AccountBalance balance = transactionService.getAccountBalance(key);
+            return balance != null ? balance.getBalance() : BigDecimal.ZERO;
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.bank.transaction.service.store;
+
+import com.bank.transaction.model.Transaction;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Default storage engine: Transaction objects in a ConcurrentHashMap on the heap
+ * Account and description strings are swapped for the StringDictionary's shared instances,
+ * so repeated values are held once instead of once per transaction
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.store.engine", havingValue = "heap", matchIfMissing = true)
+public class HeapTransactionStore implements TransactionStore {
+
+    // Thread-safe map to store transactions in memory
+    private final Map<Long, Transaction> transactions = new ConcurrentHashMap<>();
+
+    private final StringDictionary dictionary;
+
+    public HeapTransactionStore(StringDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Transaction get(long id) {
+        return transactions.get(id);
+    }
+
+    @Override
+    public Transaction compute(long id, BiFunction<Long, Transaction, Transaction> remapping) {
+        return transactions.compute(id, (key, existing) -> {
+            Transaction result = remapping.apply(key, existing);
+            if (result != existing) {
+                if (result != null) {
+                    intern(result);
+                }
+                if (existing != null) {
+                    release(existing);
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public int size() {
+        return transactions.size();
+    }
+
+    @Override
+    public Iterable<Long> ids() {
+        return transactions.keySet();
+    }
+
+    @Override
+    public Stream<Transaction> values() {
+        return transactions.values().stream();
+    }
+
+    private void intern(Transaction transaction) {
+        transaction.setDescription(dictionary.canonical(transaction.getDescription()));
+        transaction.setSourceAccount(dictionary.canonical(transaction.getSourceAccount()));
+        transaction.setDestinationAccount(dictionary.canonical(transaction.getDestinationAccount()));
+    }
+
+    private void release(Transaction transaction) {
+        dictionary.release(transaction.getDescription());
+        dictionary.release(transaction.getSourceAccount());
+        dictionary.release(transaction.getDestinationAccount());
+    }
+}
@@ -0,0 +1,311 @@
+package com.bank.transaction.service.store;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.util.DateTimeUtils;
+import com.bank.transaction.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Columnar storage engine that keeps transaction fields in direct (off-heap) buffers
+ * - ID, amount (long minor units), timestamp and processing date (epoch millis) and version as longs
+ * - Type and status as enum ordinals
+ * - Description and accounts as StringDictionary codes
+ * Transaction objects are only materialized when read, so the heap holds no per-row objects
+ * apart from the bank reference, which is unique per row and gains nothing from a dictionary.
+ *
+ * Rows are spread over independently locked segments by ID; deletes move the segment's last
+ * row into the freed slot, so every segment stays densely packed.
+ *
+ * Amounts are stored with two decimals (see MoneyUtils) and dates with millisecond precision;
+ * the service refuses or normalises anything finer before it is written.
+ *
+ * Only the rows leave the heap. The service's secondary indexes stay on it, at roughly 300-400
+ * bytes per row: the skip-list entries and keys of the primary, type, status and account indexes
+ * (~200), the ID search ordinals (~75) and the bank reference once set (~55).
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.store.engine", havingValue = "offheap")
+public class OffHeapTransactionStore implements TransactionStore {
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapTransactionStore.class);
+
+    private static final byte NULL_ORDINAL = -1;
+    private static final long NULL_VERSION = 0L;
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private final Segment[] segments;
+    private final StringDictionary dictionary;
+
+    public OffHeapTransactionStore(StringDictionary dictionary,
+                                   @Value("${transaction.store.offheap.segments:64}") int segmentCount,
+                                   @Value("${transaction.store.offheap.initial-segment-capacity:1024}") int initialCapacity) {
+        if (Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("Segment count must be a power of two");
+        }
+        this.dictionary = dictionary;
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(initialCapacity);
+        }
+        logger.info("Off-heap transaction store initialized with {} segments", segmentCount);
+    }
+
+    @Override
+    public Transaction get(long id) {
+        Segment segment = segmentFor(id);
+        segment.lock.readLock().lock();
+        try {
+            int slot = segment.slots.get(id);
+            return slot == LongIntHashMap.MISSING ? null : segment.read(slot, dictionary);
+        } finally {
+            segment.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Transaction compute(long id, BiFunction<Long, Transaction, Transaction> remapping) {
+        Segment segment = segmentFor(id);
+        segment.lock.writeLock().lock();
+        try {
+            int slot = segment.slots.get(id);
+            Transaction existing = slot == LongIntHashMap.MISSING ? null : segment.read(slot, dictionary);
+            Transaction result = remapping.apply(id, existing);
+            if (result == null) {
+                if (slot != LongIntHashMap.MISSING) {
+                    segment.delete(slot, dictionary);
+                }
+            } else if (slot != LongIntHashMap.MISSING) {
+                segment.replace(slot, result, dictionary);
+            } else {
+                segment.append(result, dictionary);
+            }
+            return result;
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Iterable<Long> ids() {
+        return () -> Arrays.stream(segments).flatMap(Segment::idSnapshot).iterator();
+    }
+
+    @Override
+    public Stream<Transaction> values() {
+        return Arrays.stream(segments).flatMap(segment -> segment.snapshot(dictionary).stream());
+    }
+
+    private Segment segmentFor(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash >>> 40) & (segments.length - 1)];
+    }
+
+    /**
+     * One lock's worth of rows, stored column by column
+     */
+    private static final class Segment {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final LongIntHashMap slots;
+        private int size;
+        private int capacity;
+
+        private ByteBuffer ids;
+        private ByteBuffer amounts;
+        private ByteBuffer timestamps;
+        private ByteBuffer processingDates;
+        private ByteBuffer versions;
+        private ByteBuffer types;
+        private ByteBuffer statuses;
+        private ByteBuffer descriptions;
+        private ByteBuffer sourceAccounts;
+        private ByteBuffer destinationAccounts;
+        private String[] bankReferences;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.slots = new LongIntHashMap(capacity);
+            ids = allocate(capacity, Long.BYTES, null);
+            amounts = allocate(capacity, Long.BYTES, null);
+            timestamps = allocate(capacity, Long.BYTES, null);
+            processingDates = allocate(capacity, Long.BYTES, null);
+            versions = allocate(capacity, Long.BYTES, null);
+            types = allocate(capacity, Byte.BYTES, null);
+            statuses = allocate(capacity, Byte.BYTES, null);
+            descriptions = allocate(capacity, Integer.BYTES, null);
+            sourceAccounts = allocate(capacity, Integer.BYTES, null);
+            destinationAccounts = allocate(capacity, Integer.BYTES, null);
+            bankReferences = new String[capacity];
+        }
+
+        Transaction read(int slot, StringDictionary dictionary) {
+            Transaction transaction = new Transaction();
+            transaction.setId(ids.getLong(slot * Long.BYTES));
+            transaction.setAmount(MoneyUtils.fromMinorUnits(amounts.getLong(slot * Long.BYTES)));
+            transaction.setTimestamp(DateTimeUtils.fromEpochMillis(timestamps.getLong(slot * Long.BYTES)));
+            transaction.setProcessingDate(DateTimeUtils.fromEpochMillis(processingDates.getLong(slot * Long.BYTES)));
+            long version = versions.getLong(slot * Long.BYTES);
+            transaction.setVersion(version == NULL_VERSION ? null : version);
+            byte type = types.get(slot);
+            transaction.setType(type == NULL_ORDINAL ? null : TYPES[type]);
+            byte status = statuses.get(slot);
+            transaction.setStatus(status == NULL_ORDINAL ? null : STATUSES[status]);
+            transaction.setDescription(dictionary.decode(descriptions.getInt(slot * Integer.BYTES)));
+            transaction.setSourceAccount(dictionary.decode(sourceAccounts.getInt(slot * Integer.BYTES)));
+            transaction.setDestinationAccount(dictionary.decode(destinationAccounts.getInt(slot * Integer.BYTES)));
+            transaction.setBankReference(bankReferences[slot]);
+            return transaction;
+        }
+
+        /**
+         * Overwrites a row, releasing the dictionary references of the old values
+         */
+        void replace(int slot, Transaction transaction, StringDictionary dictionary) {
+            int description = descriptions.getInt(slot * Integer.BYTES);
+            int sourceAccount = sourceAccounts.getInt(slot * Integer.BYTES);
+            int destinationAccount = destinationAccounts.getInt(slot * Integer.BYTES);
+            write(slot, transaction, dictionary);
+            dictionary.release(description);
+            dictionary.release(sourceAccount);
+            dictionary.release(destinationAccount);
+        }
+
+        void write(int slot, Transaction transaction, StringDictionary dictionary) {
+            ids.putLong(slot * Long.BYTES, transaction.getId());
+            amounts.putLong(slot * Long.BYTES,
+                    transaction.getAmount() == null ? 0L : MoneyUtils.toMinorUnits(transaction.getAmount()));
+            timestamps.putLong(slot * Long.BYTES, DateTimeUtils.toEpochMillis(transaction.getTimestamp()));
+            processingDates.putLong(slot * Long.BYTES, DateTimeUtils.toEpochMillis(transaction.getProcessingDate()));
+            versions.putLong(slot * Long.BYTES, transaction.getVersion() == null ? NULL_VERSION : transaction.getVersion());
+            types.put(slot, transaction.getType() == null ? NULL_ORDINAL : (byte) transaction.getType().ordinal());
+            statuses.put(slot, transaction.getStatus() == null ? NULL_ORDINAL : (byte) transaction.getStatus().ordinal());
+            descriptions.putInt(slot * Integer.BYTES, dictionary.intern(transaction.getDescription()));
+            sourceAccounts.putInt(slot * Integer.BYTES, dictionary.intern(transaction.getSourceAccount()));
+            destinationAccounts.putInt(slot * Integer.BYTES, dictionary.intern(transaction.getDestinationAccount()));
+            bankReferences[slot] = transaction.getBankReference();
+        }
+
+        void append(Transaction transaction, StringDictionary dictionary) {
+            if (size == capacity) {
+                grow();
+            }
+            write(size, transaction, dictionary);
+            slots.put(transaction.getId(), size);
+            size++;
+        }
+
+        /**
+         * Removes a row by moving the last row into its slot
+         */
+        void delete(int slot, StringDictionary dictionary) {
+            dictionary.release(descriptions.getInt(slot * Integer.BYTES));
+            dictionary.release(sourceAccounts.getInt(slot * Integer.BYTES));
+            dictionary.release(destinationAccounts.getInt(slot * Integer.BYTES));
+            int last = size - 1;
+            slots.remove(ids.getLong(slot * Long.BYTES));
+            if (slot != last) {
+                copyRow(last, slot);
+                slots.put(ids.getLong(slot * Long.BYTES), slot);
+            }
+            bankReferences[last] = null;
+            size--;
+        }
+
+        Stream<Long> idSnapshot() {
+            lock.readLock().lock();
+            try {
+                Long[] snapshot = new Long[size];
+                for (int slot = 0; slot < size; slot++) {
+                    snapshot[slot] = ids.getLong(slot * Long.BYTES);
+                }
+                return Arrays.stream(snapshot);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Transaction> snapshot(StringDictionary dictionary) {
+            lock.readLock().lock();
+            try {
+                List<Transaction> snapshot = new ArrayList<>(size);
+                for (int slot = 0; slot < size; slot++) {
+                    snapshot.add(read(slot, dictionary));
+                }
+                return snapshot;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void copyRow(int from, int to) {
+            ids.putLong(to * Long.BYTES, ids.getLong(from * Long.BYTES));
+            amounts.putLong(to * Long.BYTES, amounts.getLong(from * Long.BYTES));
+            timestamps.putLong(to * Long.BYTES, timestamps.getLong(from * Long.BYTES));
+            processingDates.putLong(to * Long.BYTES, processingDates.getLong(from * Long.BYTES));
+            versions.putLong(to * Long.BYTES, versions.getLong(from * Long.BYTES));
+            types.put(to, types.get(from));
+            statuses.put(to, statuses.get(from));
+            descriptions.putInt(to * Integer.BYTES, descriptions.getInt(from * Integer.BYTES));
+            sourceAccounts.putInt(to * Integer.BYTES, sourceAccounts.getInt(from * Integer.BYTES));
+            destinationAccounts.putInt(to * Integer.BYTES, destinationAccounts.getInt(from * Integer.BYTES));
+            bankReferences[to] = bankReferences[from];
+        }
+
+        private void grow() {
+            int newCapacity = Math.multiplyExact(capacity, 2);
+            ids = allocate(newCapacity, Long.BYTES, ids);
+            amounts = allocate(newCapacity, Long.BYTES, amounts);
+            timestamps = allocate(newCapacity, Long.BYTES, timestamps);
+            processingDates = allocate(newCapacity, Long.BYTES, processingDates);
+            versions = allocate(newCapacity, Long.BYTES, versions);
+            types = allocate(newCapacity, Byte.BYTES, types);
+            statuses = allocate(newCapacity, Byte.BYTES, statuses);
+            descriptions = allocate(newCapacity, Integer.BYTES, descriptions);
+            sourceAccounts = allocate(newCapacity, Integer.BYTES, sourceAccounts);
+            destinationAccounts = allocate(newCapacity, Integer.BYTES, destinationAccounts);
+            bankReferences = Arrays.copyOf(bankReferences, newCapacity);
+            capacity = newCapacity;
+        }
+
+        /**
+         * Allocates a direct column buffer, copying the previous column if there is one
+         */
+        private static ByteBuffer allocate(int capacity, int width, ByteBuffer previous) {
+            ByteBuffer column = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, width))
+                    .order(ByteOrder.nativeOrder());
+            if (previous != null) {
+                column.put(previous.duplicate().clear());
+                column.clear();
+            }
+            return column;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.bank.transaction.service.store;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent dictionary that interns repeated strings (accounts, descriptions) to dense int codes
+ * Both storage engines go through it: the off-heap engine stores the codes, the heap engine
+ * stores the canonical String instances, so each distinct value is held once.
+ *
+ * Every stored reference is counted, which lets the dictionary report how much memory the
+ * sharing saves. Codes are never reused, so a code stays valid for the dictionary's lifetime.
+ * Savings are estimates based on the size of a Latin-1 String.
+ */
+@Component
+public class StringDictionary implements MeterBinder {
+
+    /**
+     * Code used for null strings
+     */
+    public static final int NULL_CODE = -1;
+
+    /**
+     * Code returned by {@link #codeOf} for strings that were never interned
+     */
+    public static final int UNKNOWN_CODE = -2;
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_CHUNKS = 1 << 16;
+
+    // String header plus backing array header, before the characters themselves
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String[]> values = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private final AtomicReferenceArray<AtomicIntegerArray> references = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private final AtomicInteger nextCode = new AtomicInteger();
+
+    private final LongAdder liveReferences = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    /**
+     * Returns the code for a string that is about to be stored, assigning one on first use
+     * Each call adds a reference that must later be dropped with {@link #release}
+     *
+     * @param value String (optional)
+     * @return Code, or {@link #NULL_CODE} for null
+     */
+    public int intern(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        int code = codeOf(value);
+        if (code == UNKNOWN_CODE) {
+            code = codes.computeIfAbsent(value, key -> {
+                int assigned = nextCode.getAndIncrement();
+                if ((assigned >>> CHUNK_BITS) >= MAX_CHUNKS) {
+                    throw new IllegalStateException("String dictionary is full");
+                }
+                // Written before computeIfAbsent publishes the code, so decode() always finds it
+                chunk(values, assigned >>> CHUNK_BITS, () -> new String[CHUNK_SIZE])[assigned & (CHUNK_SIZE - 1)] = key;
+                return assigned;
+            });
+        }
+        if (referenceCounts(code).getAndIncrement(code & (CHUNK_SIZE - 1)) > 0) {
+            savedBytes.add(estimatedSize(value));
+        }
+        liveReferences.increment();
+        return code;
+    }
+
+    /**
+     * Interns a string and returns the dictionary's shared instance of it
+     *
+     * @param value String (optional)
+     * @return Canonical instance equal to value, or null
+     */
+    public String canonical(String value) {
+        return decode(intern(value));
+    }
+
+    /**
+     * Drops a reference taken by {@link #intern}
+     *
+     * @param code Code of the released string
+     */
+    public void release(int code) {
+        if (code < 0) {
+            return;
+        }
+        if (referenceCounts(code).decrementAndGet(code & (CHUNK_SIZE - 1)) > 0) {
+            savedBytes.add(-estimatedSize(decode(code)));
+        }
+        liveReferences.decrement();
+    }
+
+    /**
+     * Drops a reference taken by {@link #intern} or {@link #canonical}
+     *
+     * @param value Released string (optional)
+     */
+    public void release(String value) {
+        if (value != null) {
+            release(codeOf(value));
+        }
+    }
+
+    /**
+     * Looks up the code of a string without interning it
+     * Lets filters compare codes: a string with no code cannot be stored anywhere
+     *
+     * @param value String (optional)
+     * @return Code, {@link #NULL_CODE} for null, or {@link #UNKNOWN_CODE}
+     */
+    public int codeOf(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : UNKNOWN_CODE;
+    }
+
+    /**
+     * Returns the string for a code
+     *
+     * @param code Code returned by {@link #intern}
+     * @return String, or null for {@link #NULL_CODE}
+     */
+    public String decode(int code) {
+        if (code == NULL_CODE) {
+            return null;
+        }
+        return values.get(code >>> CHUNK_BITS)[code & (CHUNK_SIZE - 1)];
+    }
+
+    /**
+     * Number of distinct strings in the dictionary
+     */
+    public int size() {
+        return nextCode.get();
+    }
+
+    /**
+     * Estimated bytes saved by sharing one instance per distinct string across all live references
+     */
+    public long savedBytes() {
+        return savedBytes.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transaction.dictionary.entries", this, StringDictionary::size)
+                .description("Distinct strings held by the transaction string dictionary")
+                .register(registry);
+        Gauge.builder("transaction.dictionary.references", liveReferences, LongAdder::sum)
+                .description("Stored string fields that point into the dictionary")
+                .register(registry);
+        Gauge.builder("transaction.dictionary.saved", this, StringDictionary::savedBytes)
+                .description("Estimated memory saved by dictionary encoding")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private AtomicIntegerArray referenceCounts(int code) {
+        return chunk(references, code >>> CHUNK_BITS, () -> new AtomicIntegerArray(CHUNK_SIZE));
+    }
+
+    private static <T> T chunk(AtomicReferenceArray<T> chunks, int index, Supplier<T> empty) {
+        T chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null, empty.get());
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    private static long estimatedSize(String value) {
+        return STRING_OVERHEAD_BYTES + value.length();
+    }
+}
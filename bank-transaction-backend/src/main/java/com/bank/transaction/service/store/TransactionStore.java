@@ -0,0 +1,51 @@
+package com.bank.transaction.service.store;
+
+import com.bank.transaction.model.Transaction;
+
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine for transactions, keyed by transaction ID
+ * The service keeps its indexes in sync from inside {@link #compute}, so implementations
+ * must run the remapping function atomically with respect to other writes of the same ID
+ *
+ * The engine is selected with the transaction.store.engine property (heap or offheap)
+ */
+public interface TransactionStore {
+
+    /**
+     * Retrieves a transaction by ID
+     *
+     * @param id Transaction ID
+     * @return Transaction if found, null otherwise
+     */
+    Transaction get(long id);
+
+    /**
+     * Atomically replaces the transaction stored under an ID
+     * Works like ConcurrentHashMap.compute: the function receives the current
+     * transaction (or null) and returns the new one (or null to remove it).
+     * Exceptions thrown by the function leave the store unchanged.
+     *
+     * @param id Transaction ID
+     * @param remapping Function computing the new transaction
+     * @return The new transaction, or null if none is stored any more
+     */
+    Transaction compute(long id, BiFunction<Long, Transaction, Transaction> remapping);
+
+    /**
+     * Number of stored transactions
+     */
+    int size();
+
+    /**
+     * IDs of all stored transactions, weakly consistent with concurrent writes
+     */
+    Iterable<Long> ids();
+
+    /**
+     * All stored transactions, weakly consistent with concurrent writes
+     */
+    Stream<Transaction> values();
+}
@@ -0,0 +1,85 @@
+package com.bank.transaction.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows observed latency (additive increase, multiplicative decrease)
+ * Each request completed within the latency target raises the limit by 1/limit, so a full
+ * window of fast requests adds about one slot; each slower request cuts it by the backoff
+ * factor. The limit stays between min and max.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final double backoff;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    /**
+     * @param initialLimit Starting limit
+     * @param minLimit Lowest limit
+     * @param maxLimit Highest limit
+     * @param targetNanos Latency above which the limit is cut
+     * @param backoff Factor applied on a slow request, between 0 and 1
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetNanos, double backoff) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("Backoff must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.backoff = backoff;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes a slot if fewer than the current limit are in use
+     * A successful call must be followed by {@link #release}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a slot and adjusts the limit to how long the request took
+     *
+     * @param latencyNanos Time the request held its slot
+     */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        // Lost updates between racing releases only blur the adjustment, so no lock is taken
+        double current = limit;
+        limit = latencyNanos <= targetNanos
+                ? Math.min(maxLimit, current + 1.0 / current)
+                : Math.max(minLimit, current * backoff);
+    }
+
+    /**
+     * Returns a slot without adjusting the limit, for requests whose latency says nothing about load
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.bank.transaction.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Conversions between LocalDateTime and epoch milliseconds
+ * LocalDateTime carries no zone, so UTC is used consistently; the result is only
+ * meant for ordering and compact storage, not as a real instant
+ */
+public final class DateTimeUtils {
+
+    /**
+     * Marker used in place of a null date
+     */
+    public static final long NULL_EPOCH_MILLIS = Long.MIN_VALUE;
+
+    private DateTimeUtils() {
+    }
+
+    /**
+     * Converts a date to epoch milliseconds
+     *
+     * @param dateTime Date (optional)
+     * @return Epoch milliseconds, {@link #NULL_EPOCH_MILLIS} for null
+     */
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NULL_EPOCH_MILLIS;
+        }
+        try {
+            return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (ArithmeticException e) {
+            // Only reachable for dates hundreds of millions of years away
+            return dateTime.getYear() > 0 ? Long.MAX_VALUE : NULL_EPOCH_MILLIS + 1;
+        }
+    }
+
+    /**
+     * Drops sub-millisecond precision, which epoch milliseconds cannot hold
+     *
+     * @param dateTime Date (optional)
+     * @return Date truncated to the millisecond, or null
+     */
+    public static LocalDateTime truncateToMillis(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Converts epoch milliseconds back to a date
+     *
+     * @param epochMillis Epoch milliseconds or {@link #NULL_EPOCH_MILLIS}
+     * @return Date, or null for the null marker
+     */
+    public static LocalDateTime fromEpochMillis(long epochMillis) {
+        if (epochMillis == NULL_EPOCH_MILLIS) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.transaction.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between BigDecimal amounts and long minor units (cents)
+ * Used wherever amounts are stored or accumulated as primitives
+ */
+public final class MoneyUtils {
+
+    /**
+     * Number of decimal places held by a minor unit
+     */
+    public static final int MINOR_UNIT_SCALE = 2;
+
+    private MoneyUtils() {
+    }
+
+    /**
+     * Converts an amount to minor units
+     * Amounts with more than two decimals are rounded half-even
+     *
+     * @param amount Amount (must not be null)
+     * @return Amount in minor units
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(MINOR_UNIT_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts minor units back to an amount with two decimals
+     *
+     * @param minorUnits Amount in minor units
+     * @return Amount
+     */
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+    }
+}
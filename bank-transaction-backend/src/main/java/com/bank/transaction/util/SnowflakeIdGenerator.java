@@ -1,13 +1,28 @@
 package com.bank.transaction.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Snowflake ID Generator
  * Generates 64-bit long integer IDs with the following structure:
  * 0 - 41bits: Timestamp (approx. 69 years)
  * 41 - 51bits: Worker ID (10 bits, can be deployed on 1024 machines)
  * 51 - 64bits: Sequence number (12 bits, can generate 4096 IDs per millisecond)
+ *
+ * Lock-free: the timestamp and sequence of the last reserved ID are packed into one AtomicLong
+ * and advanced with compare-and-set. When a millisecond's sequence numbers run out, or the
+ * system clock moves backwards, the packed timestamp runs ahead of the wall clock instead of
+ * spinning or failing, and falls back in step once the clock catches up. IDs therefore stay
+ * unique and increasing even across a clock rollback.
+ *
+ * Optionally each thread reserves a block of sequence numbers at a time and takes IDs from it
+ * until it is used up, touching the shared state once per block. IDs stay unique and increasing
+ * per thread, but IDs from different threads may interleave out of issue order, and an ID taken
+ * from a block reserved earlier carries that earlier timestamp.
  */
 @Component
 public class SnowflakeIdGenerator {
@@ -61,25 +76,35 @@ public class SnowflakeIdGenerator {
      */
     private final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATA_CENTER_ID_BITS;
 
+    /**
+     * Maximum sequence numbers a thread may reserve at once: one millisecond's worth
+     */
+    private static final int MAX_THREAD_BLOCK_SIZE = 4096;
+
     /**
      * Worker ID
      */
-    private long workerId;
+    private final long workerId;
 
     /**
      * Data center ID
      */
-    private long dataCenterId;
+    private final long dataCenterId;
 
     /**
-     * Sequence number
+     * Last reserved (timestamp offset, sequence) pair, packed as timestamp << SEQUENCE_BITS | sequence
      */
-    private long sequence = 0L;
+    private final AtomicLong lastState = new AtomicLong();
 
     /**
-     * Last timestamp when ID was generated
+     * Sequence numbers reserved per thread and refill; 1 disables per-thread blocks
      */
-    private long lastTimestamp = -1L;
+    private final int threadBlockSize;
+
+    /**
+     * Per-thread block as {next state, last state}
+     */
+    private final ThreadLocal<long[]> threadBlocks = ThreadLocal.withInitial(() -> new long[] {1L, 0L});
 
     /**
      * Default constructor
@@ -94,6 +119,19 @@ public class SnowflakeIdGenerator {
      * @param dataCenterId Data center ID (0-31)
      */
     public SnowflakeIdGenerator(long workerId, long dataCenterId) {
+        this(workerId, dataCenterId, 1);
+    }
+
+    /**
+     * Constructor with worker and data center IDs and a per-thread block size
+     * @param workerId Worker ID (0-31)
+     * @param dataCenterId Data center ID (0-31)
+     * @param threadBlockSize Sequence numbers each thread reserves at a time (1-4096, 1 to disable)
+     */
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${transaction.id.worker-id:0}") long workerId,
+                                @Value("${transaction.id.data-center-id:0}") long dataCenterId,
+                                @Value("${transaction.id.thread-block-size:1}") int threadBlockSize) {
         if (workerId > MAX_WORKER_ID || workerId < 0) {
             throw new IllegalArgumentException(
                     String.format("Worker ID can't be greater than %d or less than 0", MAX_WORKER_ID));
@@ -102,55 +140,95 @@ public class SnowflakeIdGenerator {
             throw new IllegalArgumentException(
                     String.format("DataCenter ID can't be greater than %d or less than 0", MAX_DATA_CENTER_ID));
         }
+        if (threadBlockSize < 1 || threadBlockSize > MAX_THREAD_BLOCK_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("Thread block size must be between 1 and %d", MAX_THREAD_BLOCK_SIZE));
+        }
         this.workerId = workerId;
         this.dataCenterId = dataCenterId;
+        this.threadBlockSize = threadBlockSize;
     }
 
     /**
      * Gets the next ID
      * @return The next ID
      */
-    public synchronized long nextId() {
-        long timestamp = System.currentTimeMillis();
+    public long nextId() {
+        long now = currentOffset();
+        if (threadBlockSize == 1) {
+            return toId(reserve(1, now));
+        }
 
-        // If current time is less than last time, it means system clock has been rolled back
-        if (timestamp < lastTimestamp) {
-            throw new RuntimeException(
-                    String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", 
-                                  lastTimestamp - timestamp));
+        long[] block = threadBlocks.get();
+        // A block left over from an earlier millisecond is used up first; dropping it would burn
+        // a whole block per ID and push the shared timestamp ahead of the clock
+        if (block[0] > block[1]) {
+            long first = reserve(threadBlockSize, now);
+            block[0] = first;
+            block[1] = first + threadBlockSize - 1;
         }
+        return toId(block[0]++);
+    }
 
-        // If it's the same millisecond, increment sequence
-        if (lastTimestamp == timestamp) {
-            sequence = (sequence + 1) & SEQUENCE_MASK;
-            // If sequence overflows, wait for next millisecond
-            if (sequence == 0) {
-                timestamp = waitForNextMillis(lastTimestamp);
-            }
-        } else {
-            // Reset sequence for different millisecond
-            sequence = 0L;
+    /**
+     * Moves the generator past an ID issued before a restart, so it is never issued again
+     * The packed state only starts at the wall clock, which may be behind IDs issued by an
+     * earlier run whose timestamp ran ahead; does nothing if the generator is already past it
+     * @param id ID recovered from storage
+     */
+    public void advancePast(long id) {
+        long state = ((id >>> TIMESTAMP_SHIFT) << SEQUENCE_BITS) | (id & SEQUENCE_MASK);
+        lastState.accumulateAndGet(state, Math::max);
+    }
+
+    /**
+     * Reserves a block of IDs with a single compare-and-set
+     * IDs are consecutive within a millisecond and increasing across the block
+     * @param count Number of IDs (at least 1)
+     * @return IDs in generation order
+     */
+    public long[] nextIds(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("ID count must be at least 1");
+        }
+        long first = reserve(count, currentOffset());
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = toId(first + i);
         }
+        return ids;
+    }
 
-        lastTimestamp = timestamp;
+    /**
+     * Reserves count consecutive states
+     * A new millisecond starts at sequence 0; otherwise the block continues after the last
+     * reserved state, carrying into the next timestamp when the sequence overflows
+     * @param count Number of states
+     * @param now Current timestamp offset
+     * @return First reserved state
+     */
+    private long reserve(int count, long now) {
+        long fresh = now << SEQUENCE_BITS;
+        while (true) {
+            long last = lastState.get();
+            long first = Math.max(last + 1, fresh);
+            if (lastState.compareAndSet(last, first + count - 1)) {
+                return first;
+            }
+        }
+    }
 
-        // Combine all parts to generate ID
-        return ((timestamp - START_TIMESTAMP) << TIMESTAMP_SHIFT) |
+    /**
+     * Combines a packed (timestamp, sequence) state with this node's worker and data center IDs
+     */
+    private long toId(long state) {
+        return ((state >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) |
                 (dataCenterId << DATA_CENTER_ID_SHIFT) |
                 (workerId << WORKER_ID_SHIFT) |
-                sequence;
+                (state & SEQUENCE_MASK);
     }
 
-    /**
-     * Wait until next millisecond to get a new timestamp
-     * @param lastTimestamp Last timestamp when ID was generated
-     * @return Next millisecond timestamp
-     */
-    private long waitForNextMillis(long lastTimestamp) {
-        long timestamp = System.currentTimeMillis();
-        while (timestamp <= lastTimestamp) {
-            timestamp = System.currentTimeMillis();
-        }
-        return timestamp;
+    private long currentOffset() {
+        return System.currentTimeMillis() - START_TIMESTAMP;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.bank.transaction.util;
+
+/**
+ * Token bucket rate limiter
+ * Holds up to burst tokens and refills at rate tokens per second; each permit takes one token.
+ * Time is passed in by the caller, so the bucket has no clock of its own.
+ */
+public final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param rate Tokens added per second
+     * @param burst Largest number of tokens held; the bucket starts full
+     * @param now Current time from System.nanoTime()
+     */
+    public TokenBucket(double rate, double burst, long now) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token bucket rate must be positive and burst at least 1");
+        }
+        this.ratePerNano = rate / NANOS_PER_SECOND;
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Takes a token if one is available
+     *
+     * @param now Current time from System.nanoTime()
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public synchronized long tryAcquire(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) * ratePerNano);
+            lastRefill = now;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / ratePerNano);
+    }
+}
@@ -0,0 +1,152 @@
+package com.bank.transaction.util;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV form of a transaction, shared by the export and import paths so files round-trip
+ * One record per line: quoted fields may contain separators and quotes but not line breaks
+ */
+public final class TransactionCsv {
+
+    /**
+     * Column names, in export order
+     */
+    public static final List<String> COLUMNS = List.of("id", "type", "status", "amount", "timestamp",
+            "sourceAccount", "destinationAccount", "description", "bankReference", "processingDate");
+
+    /**
+     * Header line, without the line break
+     */
+    public static final String HEADER = String.join(",", COLUMNS);
+
+    private TransactionCsv() {
+    }
+
+    /**
+     * Formats a transaction as one CSV line, without the line break
+     */
+    public static String format(Transaction t) {
+        return String.join(",",
+                field(t.getId()), field(t.getType()), field(t.getStatus()),
+                field(t.getAmount() != null ? t.getAmount().toPlainString() : null),
+                field(t.getTimestamp()), field(t.getSourceAccount()), field(t.getDestinationAccount()),
+                field(t.getDescription()), field(t.getBankReference()), field(t.getProcessingDate()));
+    }
+
+    /**
+     * Maps a header line to column positions
+     *
+     * @param header Header line
+     * @return Index into the line's fields for each of {@link #COLUMNS}, -1 if absent
+     * @throws IllegalArgumentException if the header has neither type nor amount
+     */
+    public static int[] columns(String header) {
+        List<String> names = split(header);
+        int[] positions = new int[COLUMNS.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = names.indexOf(COLUMNS.get(i));
+        }
+        if (positions[COLUMNS.indexOf("type")] < 0 || positions[COLUMNS.indexOf("amount")] < 0) {
+            throw new IllegalArgumentException("CSV header must contain type and amount columns");
+        }
+        return positions;
+    }
+
+    /**
+     * Parses one CSV line into a transaction
+     * The id column is ignored: imported rows always get new IDs
+     *
+     * @param line CSV line, without the line break
+     * @param columns Column positions from {@link #columns}
+     * @return Parsed transaction
+     * @throws IllegalArgumentException if a value cannot be parsed
+     */
+    public static Transaction parse(String line, int[] columns) {
+        List<String> fields = split(line);
+        Transaction transaction = new Transaction();
+        String type = value(fields, columns, 1);
+        transaction.setType(type != null ? TransactionType.valueOf(type) : null);
+        String status = value(fields, columns, 2);
+        if (status != null) {
+            transaction.setStatus(TransactionStatus.valueOf(status));
+        }
+        String amount = value(fields, columns, 3);
+        transaction.setAmount(amount != null ? new BigDecimal(amount) : null);
+        String timestamp = value(fields, columns, 4);
+        if (timestamp != null) {
+            transaction.setTimestamp(LocalDateTime.parse(timestamp));
+        }
+        transaction.setSourceAccount(value(fields, columns, 5));
+        transaction.setDestinationAccount(value(fields, columns, 6));
+        transaction.setDescription(value(fields, columns, 7));
+        transaction.setBankReference(value(fields, columns, 8));
+        String processingDate = value(fields, columns, 9);
+        transaction.setProcessingDate(processingDate != null ? LocalDateTime.parse(processingDate) : null);
+        return transaction;
+    }
+
+    /**
+     * Formats one CSV field, quoting it when it contains a separator, quote or line break
+     */
+    public static String field(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Splits a CSV line into unquoted fields
+     *
+     * @throws IllegalArgumentException on an unterminated quoted field
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS.size());
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    current.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String value(List<String> fields, int[] columns, int column) {
+        int position = columns[column];
+        if (position < 0 || position >= fields.size() || fields.get(position).isEmpty()) {
+            return null;
+        }
+        return fields.get(position);
+    }
+}
@@ -1,16 +1,24 @@
 package com.bank.transaction.validator;
 
 import com.bank.transaction.model.Transaction;
+import com.bank.transaction.util.MoneyUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
 
+import java.math.BigDecimal;
+
 /**
  * Custom validator for Transaction objects
  */
 @Component
 public class TransactionValidator implements Validator {
 
+    /**
+     * Largest accepted amount; keeps amounts, and balances summing thousands of them, within long minor units
+     */
+    public static final BigDecimal MAX_AMOUNT = new BigDecimal("9999999999999.99");
+
     @Override
     public boolean supports(Class<?> clazz) {
         return Transaction.class.equals(clazz);
@@ -19,9 +27,29 @@ public class TransactionValidator implements Validator {
     @Override
     public void validate(Object target, Errors errors) {
         Transaction transaction = (Transaction) target;
+        validateAmount(transaction, errors);
         validateAccountsByTransactionType(transaction, errors);
     }
 
+    /**
+     * Rejects amounts above {@link #MAX_AMOUNT} or with more decimals than minor units hold;
+     * null and non-positive amounts are left to the field constraints
+     *
+     * @param transaction The transaction to validate
+     * @param errors The errors object to register validation errors
+     */
+    private void validateAmount(Transaction transaction, Errors errors) {
+        if (transaction.getAmount() == null) {
+            return;
+        }
+        if (transaction.getAmount().compareTo(MAX_AMOUNT) > 0) {
+            errors.rejectValue("amount", "amount.max", "Amount cannot exceed " + MAX_AMOUNT.toPlainString());
+        } else if (transaction.getAmount().stripTrailingZeros().scale() > MoneyUtils.MINOR_UNIT_SCALE) {
+            errors.rejectValue("amount", "amount.scale",
+                    "Amount cannot have more than " + MoneyUtils.MINOR_UNIT_SCALE + " decimals");
+        }
+    }
+
     /**
      * Validates source and destination accounts based on transaction type:
      * - DEPOSIT: Requires only destination account
@@ -0,0 +1,96 @@
+package com.bank.transaction.benchmark;
+
+import com.bank.transaction.util.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the lock-free ID generator with the previous synchronized one
+ * All benchmarks run with one thread per core, the case that made the monitor a hotspot. On a
+ * single-core host that is one uncontended thread, so those numbers say nothing about contention;
+ * compare the generators on a multi-core machine only
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ *   java -cp target/classes:target/test-classes:$(cat target/test-classpath.txt) \
+ *       com.bank.transaction.benchmark.SnowflakeIdGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class SnowflakeIdGeneratorBenchmark {
+
+    private final SynchronizedSnowflakeIdGenerator synchronizedGenerator = new SynchronizedSnowflakeIdGenerator();
+    private final SnowflakeIdGenerator casGenerator = new SnowflakeIdGenerator(0L, 0L, 1);
+    private final SnowflakeIdGenerator threadBlockGenerator = new SnowflakeIdGenerator(0L, 0L, 64);
+
+    @Benchmark
+    public long synchronizedNextId() {
+        return synchronizedGenerator.nextId();
+    }
+
+    @Benchmark
+    public long casNextId() {
+        return casGenerator.nextId();
+    }
+
+    @Benchmark
+    public long threadBlockNextId() {
+        return threadBlockGenerator.nextId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SnowflakeIdGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * The generator as it was before the lock-free rewrite, kept as the baseline
+     */
+    static final class SynchronizedSnowflakeIdGenerator {
+        private static final long START_TIMESTAMP = 1704067200000L;
+        private static final long SEQUENCE_BITS = 12L;
+        private static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS);
+        private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + 10L;
+
+        private long sequence = 0L;
+        private long lastTimestamp = -1L;
+
+        synchronized long nextId() {
+            long timestamp = System.currentTimeMillis();
+            if (timestamp < lastTimestamp) {
+                throw new RuntimeException("Clock moved backwards");
+            }
+            if (lastTimestamp == timestamp) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    while (timestamp <= lastTimestamp) {
+                        timestamp = System.currentTimeMillis();
+                    }
+                }
+            } else {
+                sequence = 0L;
+            }
+            lastTimestamp = timestamp;
+            return ((timestamp - START_TIMESTAMP) << TIMESTAMP_SHIFT) | sequence;
+        }
+    }
+}
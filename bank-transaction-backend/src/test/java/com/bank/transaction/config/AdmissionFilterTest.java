@@ -0,0 +1,115 @@
+package com.bank.transaction.config;
+
+import com.bank.transaction.util.AdaptiveConcurrencyLimit;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionFilterTest {
+
+    private static final String ALICE = "192.0.2.1";
+    private static final String BOB = "192.0.2.2";
+    private static final String PROXY = "10.0.0.1";
+    private static final ClientIdentity CLIENTS = new ClientIdentity(new String[] {PROXY});
+
+    @Test
+    public void rejectsClientOverItsRateWithRetryAfter() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(0.5, 2,
+                new AdaptiveConcurrencyLimit(8, 1, 8, TimeUnit.SECONDS.toNanos(1), 0.5), CLIENTS);
+
+        assertEquals(200, post(filter, ALICE).getStatus());
+        assertEquals(200, post(filter, ALICE).getStatus());
+        MockHttpServletResponse rejected = post(filter, ALICE);
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too Many Requests"));
+
+        // Other clients have their own buckets, and reads are never limited
+        assertEquals(200, post(filter, BOB).getStatus());
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/transactions");
+        read.setRemoteAddr(ALICE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(read, response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    public void shedsWritesBeyondConcurrencyLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, TimeUnit.SECONDS.toNanos(1), 0.5);
+        AdmissionFilter filter = new AdmissionFilter(1000, 1000, limit, CLIENTS);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        MockHttpServletResponse rejected = post(filter, ALICE);
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+
+        limit.release(0);
+        assertEquals(200, post(filter, ALICE).getStatus());
+        assertEquals(1, limit.getInFlight());
+
+        // A slow request cuts the limit
+        limit.release(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(1, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void leavesBulkWritesOutOfTheLatencySample() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 4, 0, 0.5);
+        AdmissionFilter filter = new AdmissionFilter(1000, 1000, limit, CLIENTS);
+
+        for (String path : new String[] {"/api/transactions/bulk", "/api/transactions/batch"}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("PUT", path), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(4, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+
+        // With a zero latency target any sampled write counts as slow
+        post(filter, ALICE);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void keysBucketsOnVerifiedIdentityNotOnClientChosenHeader() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(0.5, 2,
+                new AdaptiveConcurrencyLimit(8, 1, 8, TimeUnit.SECONDS.toNanos(1), 0.5), CLIENTS);
+
+        // A fresh X-Client-Id per request does not buy a fresh bucket
+        assertEquals(200, post(filter, ALICE, "burst-1").getStatus());
+        assertEquals(200, post(filter, ALICE, "burst-2").getStatus());
+        assertEquals(429, post(filter, ALICE, "burst-3").getStatus());
+
+        // Behind a trusted proxy, the header it sets names the client
+        assertEquals(200, post(filter, PROXY, "carol").getStatus());
+        assertEquals(200, post(filter, PROXY, "carol").getStatus());
+        assertEquals(429, post(filter, PROXY, "carol").getStatus());
+        assertEquals(200, post(filter, PROXY, "dave").getStatus());
+    }
+
+    private static MockHttpServletResponse post(AdmissionFilter filter, String address)
+            throws ServletException, IOException {
+        return post(filter, address, null);
+    }
+
+    private static MockHttpServletResponse post(AdmissionFilter filter, String address, String clientId)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions");
+        request.setRemoteAddr(address);
+        if (clientId != null) {
+            request.addHeader(ClientIdentity.CLIENT_ID, clientId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,78 @@
+package com.bank.transaction.controller;
+
+import com.bank.transaction.model.AccountBalance;
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionPage;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AccountController.class)
+public class AccountControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TransactionService transactionService;
+
+    @Test
+    public void getAccountTransactions_Success() throws Exception {
+        Transaction transaction = new Transaction();
+        transaction.setId(123456789L);
+        transaction.setDescription("Account Transaction");
+        transaction.setAmount(new BigDecimal("100.00"));
+        transaction.setType(TransactionType.TRANSFER);
+        transaction.setSourceAccount("ACCT12345678");
+
+        when(transactionService.getAccountTransactions("ACCT12345678", 5, "abc"))
+            .thenReturn(TransactionPage.ofCursor(List.of(transaction), 5, "def"));
+
+        mockMvc.perform(get("/api/accounts/ACCT12345678/transactions")
+                .param("size", "5")
+                .param("after", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].sourceAccount").value("ACCT12345678"))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
+    @Test
+    public void getAccountTransactions_InvalidCursor() throws Exception {
+        when(transactionService.getAccountTransactions("ACCT12345678", 10, "???"))
+            .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/accounts/ACCT12345678/transactions")
+                .param("after", "???"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getAccountBalance_Success() throws Exception {
+        when(transactionService.getAccountBalance("ACCT12345678"))
+            .thenReturn(new AccountBalance("ACCT12345678", new BigDecimal("400.00"), new BigDecimal("-25.50")));
+
+        mockMvc.perform(get("/api/accounts/ACCT12345678/balance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(400.00))
+                .andExpect(jsonPath("$.pendingBalance").value(-25.50));
+    }
+
+    @Test
+    public void getAccountBalance_NotFound() throws Exception {
+        when(transactionService.getAccountBalance("UNKNOWN00")).thenReturn(null);
+
+        mockMvc.perform(get("/api/accounts/UNKNOWN00/balance"))
+                .andExpect(status().isNotFound());
+    }
+}
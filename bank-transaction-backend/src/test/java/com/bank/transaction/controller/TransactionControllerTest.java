@@ -1,17 +1,31 @@
 package com.bank.transaction.controller;
 
+import com.bank.transaction.config.ClientIdentity;
+import com.bank.transaction.exception.InvalidStatusTransitionException;
+import com.bank.transaction.exception.VersionConflictException;
+import com.bank.transaction.model.AggregateGroup;
+import com.bank.transaction.model.AggregateMetric;
+import com.bank.transaction.model.BulkUpdateResult;
 import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionAggregate;
+import com.bank.transaction.model.TransactionPage;
+import com.bank.transaction.model.TransactionQuery;
 import com.bank.transaction.model.TransactionType;
 import com.bank.transaction.model.TransactionStatus;
 import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.service.feed.TransactionFeed;
+import com.bank.transaction.service.idempotency.IdempotencyCache;
 import com.bank.transaction.validator.TransactionValidator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.validation.Errors;
@@ -21,8 +35,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
@@ -31,6 +50,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TransactionController.class)
+@Import({IdempotencyCache.class, ClientIdentity.class})
 public class TransactionControllerTest {
 
     @Autowired
@@ -42,6 +62,9 @@ public class TransactionControllerTest {
     @MockBean
     private TransactionValidator transactionValidator;
 
+    @MockBean
+    private TransactionFeed transactionFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -96,6 +119,67 @@ public class TransactionControllerTest {
                 .andExpect(jsonPath("$.type").value("TRANSFER"));
     }
     
+    @Test
+    public void createTransaction_ReplaysResponseForRepeatedIdempotencyKey() throws Exception {
+        Transaction inputTransaction = new Transaction();
+        inputTransaction.setDescription("Retried Deposit");
+        inputTransaction.setAmount(new BigDecimal("500.00"));
+        inputTransaction.setType(TransactionType.DEPOSIT);
+        inputTransaction.setDestinationAccount("ACCT87654321");
+        Transaction createdTransaction = new Transaction();
+        createdTransaction.setId(987654321L);
+        createdTransaction.setDescription("Retried Deposit");
+        when(transactionService.createTransaction(any(Transaction.class))).thenReturn(createdTransaction);
+
+        for (String replayed : List.of("false", "true")) {
+            mockMvc.perform(post("/api/transactions")
+                    .header("Idempotency-Key", "order-42-attempt")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(inputTransaction)))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Idempotent-Replayed", replayed))
+                    .andExpect(jsonPath("$.id").value(987654321L));
+        }
+        verify(transactionService, times(1)).createTransaction(any(Transaction.class));
+    }
+    
+    @Test
+    public void createTransaction_RefusesIdempotencyKeyReusedWithDifferentBody() throws Exception {
+        Transaction created = new Transaction();
+        created.setId(987654322L);
+        when(transactionService.createTransaction(any(Transaction.class))).thenReturn(created);
+        String body = "{\"description\":\"Rent\",\"amount\":500.00,\"type\":\"DEPOSIT\",\"destinationAccount\":\"ACCT87654321\"}";
+
+        mockMvc.perform(post("/api/transactions")
+                .header("Idempotency-Key", "rent-march")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/transactions")
+                .header("Idempotency-Key", "rent-march")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.replace("500.00", "900.00")))
+                .andExpect(status().isUnprocessableEntity());
+        // A client-chosen X-Client-Id does not move the caller into another scope
+        mockMvc.perform(post("/api/transactions")
+                .header("Idempotency-Key", "rent-march")
+                .header("X-Client-Id", "another-client")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.replace("500.00", "900.00")))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/api/transactions")
+                .header("Idempotency-Key", "rent-march")
+                .with(request -> {
+                    request.setRemoteAddr("192.0.2.7");
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.replace("500.00", "900.00")))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+        verify(transactionService, times(2)).createTransaction(any(Transaction.class));
+    }
+    
     @Test
     public void createTransaction_Deposit() throws Exception {
         // Deposit type transactions should only have target account, no source account
@@ -227,7 +311,7 @@ public class TransactionControllerTest {
         updatedTransaction.setStatus(TransactionStatus.INITIATED);
         updatedTransaction.setTimestamp(LocalDateTime.now());
         
-        when(transactionService.updateTransaction(eq(id), any(Transaction.class))).thenReturn(updatedTransaction);
+        when(transactionService.updateTransaction(eq(id), any(Transaction.class), isNull())).thenReturn(updatedTransaction);
         
         mockMvc.perform(put("/api/transactions/" + id)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -246,7 +330,7 @@ public class TransactionControllerTest {
         inputTransaction.setAmount(new BigDecimal("300.00"));
         inputTransaction.setType(TransactionType.DEPOSIT);
         
-        when(transactionService.updateTransaction(eq(id), any(Transaction.class)))
+        when(transactionService.updateTransaction(eq(id), any(Transaction.class), isNull()))
                 .thenThrow(new IllegalArgumentException("Transaction not found"));
         
         mockMvc.perform(put("/api/transactions/" + id)
@@ -263,7 +347,7 @@ public class TransactionControllerTest {
         invalidTransaction.setAmount(new BigDecimal("0.00")); // Zero amount
         
         // Mock service to throw exception when validation fails
-        when(transactionService.updateTransaction(eq(id), any(Transaction.class)))
+        when(transactionService.updateTransaction(eq(id), any(Transaction.class), isNull()))
                 .thenThrow(new IllegalArgumentException("Validation failed: Description cannot be empty"));
         
         mockMvc.perform(put("/api/transactions/" + id)
@@ -281,7 +365,7 @@ public class TransactionControllerTest {
         completedTransaction.setType(TransactionType.TRANSFER);
         
         // Mock service to throw exception when trying to update a completed transaction
-        when(transactionService.updateTransaction(eq(id), any(Transaction.class)))
+        when(transactionService.updateTransaction(eq(id), any(Transaction.class), isNull()))
                 .thenThrow(new IllegalStateException("Completed transactions cannot be modified"));
         
         mockMvc.perform(put("/api/transactions/" + id)
@@ -363,10 +447,8 @@ public class TransactionControllerTest {
         List<Transaction> transactions = Arrays.asList(transaction);
         long totalCount = 1;
         
-        when(transactionService.getTransactionsPaged(eq(page), eq(size), isNull(), isNull(), isNull()))
-            .thenReturn(transactions);
-        when(transactionService.getTransactionCount(isNull(), isNull(), isNull()))
-            .thenReturn(totalCount);
+        when(transactionService.queryTransactions(eq(new TransactionQuery(page, size, null, null, null))))
+            .thenReturn(new TransactionPage(transactions, page, size, totalCount));
         
         mockMvc.perform(get("/api/transactions/paged")
                 .param("page", String.valueOf(page))
@@ -396,10 +478,8 @@ public class TransactionControllerTest {
         List<Transaction> transactions = Arrays.asList(transaction);
         long totalCount = 1;
         
-        when(transactionService.getTransactionsPaged(eq(page), eq(size), eq(type), eq(status), eq(searchId)))
-            .thenReturn(transactions);
-        when(transactionService.getTransactionCount(eq(type), eq(status), eq(searchId)))
-            .thenReturn(totalCount);
+        when(transactionService.queryTransactions(eq(new TransactionQuery(page, size, type, status, searchId))))
+            .thenReturn(new TransactionPage(transactions, page, size, totalCount));
         
         mockMvc.perform(get("/api/transactions/paged")
                 .param("page", String.valueOf(page))
@@ -423,10 +503,8 @@ public class TransactionControllerTest {
         List<Transaction> emptyList = Collections.emptyList();
         long totalCount = 0;
         
-        when(transactionService.getTransactionsPaged(eq(page), eq(size), eq(type), isNull(), isNull()))
-            .thenReturn(emptyList);
-        when(transactionService.getTransactionCount(eq(type), isNull(), isNull()))
-            .thenReturn(totalCount);
+        when(transactionService.queryTransactions(eq(new TransactionQuery(page, size, type, null, null))))
+            .thenReturn(new TransactionPage(emptyList, page, size, totalCount));
         
         mockMvc.perform(get("/api/transactions/paged")
                 .param("page", String.valueOf(page))
@@ -438,10 +516,25 @@ public class TransactionControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(0));
     }
     
+    @Test
+    public void getTransactionsPaged_WithTimeRange() throws Exception {
+        TransactionQuery query = new TransactionQuery(0, 10, null, null, null);
+        query.setFrom(LocalDateTime.of(2024, 3, 1, 0, 0));
+        query.setTo(LocalDateTime.of(2024, 4, 1, 0, 0));
+        when(transactionService.queryTransactions(eq(query)))
+            .thenReturn(new TransactionPage(Collections.emptyList(), 0, 10, 0));
+        
+        mockMvc.perform(get("/api/transactions/paged")
+                .param("from", "2024-03-01T00:00:00")
+                .param("to", "2024-04-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+    
     @Test
     public void getTransactionsPaged_InvalidPageParameters() throws Exception {
         // Controller doesn't validate page parameters, so we should test service exception
-        when(transactionService.getTransactionsPaged(eq(-1), eq(10), isNull(), isNull(), isNull()))
+        when(transactionService.queryTransactions(eq(new TransactionQuery(-1, 10, null, null, null))))
             .thenThrow(new IllegalArgumentException("Page index must not be less than zero"));
         
         mockMvc.perform(get("/api/transactions/paged")
@@ -450,8 +543,317 @@ public class TransactionControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void getTransactionsPaged_WithCursor() throws Exception {
+        Transaction transaction = new Transaction();
+        transaction.setId(123456789L);
+        transaction.setDescription("Cursor Transaction");
+        transaction.setAmount(new BigDecimal("100.00"));
+        transaction.setType(TransactionType.DEPOSIT);
+        
+        TransactionQuery query = new TransactionQuery(0, 10, null, null, null);
+        query.setAfter("abc");
+        when(transactionService.queryTransactions(eq(query)))
+            .thenReturn(TransactionPage.ofCursor(Arrays.asList(transaction), 10, "def"));
+        
+        mockMvc.perform(get("/api/transactions/paged")
+                .param("after", "abc")
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].description").value("Cursor Transaction"))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+        
+    }
+
+    @Test
+    public void getTransactionCounts_Success() throws Exception {
+        Map<TransactionType, Map<TransactionStatus, Long>> counts = new EnumMap<>(TransactionType.class);
+        counts.put(TransactionType.DEPOSIT, new EnumMap<>(Map.of(TransactionStatus.COMPLETED, 3L)));
+        
+        when(transactionService.getTransactionCountsByTypeAndStatus()).thenReturn(counts);
+        
+        mockMvc.perform(get("/api/transactions/stats/counts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.DEPOSIT.COMPLETED").value(3));
+    }
+
     // ==================== DELETE TRANSACTION TESTS ====================
     
+    @Test
+    public void aggregateTransactions_Success() throws Exception {
+        TransactionAggregate row = new TransactionAggregate();
+        row.setType(TransactionType.DEPOSIT);
+        row.setCount(3L);
+        row.setSum(new BigDecimal("300.00"));
+        when(transactionService.aggregateTransactions(
+                eq(EnumSet.of(AggregateGroup.TYPE)), eq(EnumSet.of(AggregateMetric.COUNT, AggregateMetric.SUM))))
+            .thenReturn(List.of(row));
+        
+        mockMvc.perform(get("/api/transactions/aggregate")
+                .param("groupBy", "type")
+                .param("metric", "sum,count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("DEPOSIT"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[0].sum").value(300.00));
+    }
+    
+    @Test
+    public void aggregateTransactions_UnknownGroupBy() throws Exception {
+        mockMvc.perform(get("/api/transactions/aggregate")
+                .param("groupBy", "account"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    public void exportTransactions_StreamsNdjson() throws Exception {
+        Transaction first = new Transaction();
+        first.setId(1L);
+        first.setDescription("First");
+        Transaction second = new Transaction();
+        second.setId(2L);
+        second.setDescription("Second");
+        TransactionQuery query = new TransactionQuery(0, 1, TransactionType.DEPOSIT, null, null);
+        when(transactionService.streamTransactions(eq(query))).thenReturn(Stream.of(first, second));
+        
+        MvcResult result = mockMvc.perform(get("/api/transactions/export")
+                .param("type", "DEPOSIT"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals("Second", objectMapper.readTree(lines[1]).get("description").asText());
+    }
+    
+    @Test
+    public void exportTransactions_StreamsCsv() throws Exception {
+        Transaction transaction = new Transaction();
+        transaction.setId(7L);
+        transaction.setDescription("Rent, \"March\"");
+        transaction.setAmount(new BigDecimal("1200.50"));
+        transaction.setType(TransactionType.WITHDRAWAL);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setTimestamp(LocalDateTime.of(2024, 3, 1, 9, 0));
+        when(transactionService.streamTransactions(any(TransactionQuery.class))).thenReturn(Stream.of(transaction));
+        
+        MvcResult result = mockMvc.perform(get("/api/transactions/export")
+                .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "id,type,status,amount,timestamp,sourceAccount,destinationAccount,description,bankReference,processingDate\n"
+                        + "7,WITHDRAWAL,COMPLETED,1200.50,2024-03-01T09:00,,,\"Rent, \"\"March\"\"\",,\n"));
+    }
+    
+    @Test
+    public void exportTransactions_UnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/transactions/export")
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    public void createTransactions_ReportsPerItemResults() throws Exception {
+        when(transactionService.createTransactions(any())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setId(100L + i);
+            }
+            return batch;
+        });
+        
+        String body = "["
+                + "{\"description\":\"Salary\",\"amount\":10,\"type\":\"DEPOSIT\",\"destinationAccount\":\"ACCT12345678\"},"
+                + "{\"description\":\"\",\"amount\":5,\"type\":\"WITHDRAWAL\",\"sourceAccount\":\"ACCT12345678\"},"
+                + "{\"description\":\"Move\",\"amount\":7,\"type\":\"TRANSFER\",\"sourceAccount\":\"ACCT12345678\",\"destinationAccount\":\"ACCT87654321\"}"
+                + "]";
+        
+        mockMvc.perform(post("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].id").value(100))
+                .andExpect(jsonPath("$.results[1].id").doesNotExist())
+                .andExpect(jsonPath("$.results[1].errors[0]").value("description: Description is required"))
+                .andExpect(jsonPath("$.results[2].id").value(101));
+    }
+    
+    @Test
+    public void createTransactions_RejectsRowsThatSinglePostRejects() throws Exception {
+        doAnswer(invocation -> {
+            Errors errors = invocation.getArgument(1);
+            errors.rejectValue("bankReference", "bankReference.blocked", "Bank reference is blocked");
+            return null;
+        }).when(transactionValidator).validate(any(Transaction.class), any(Errors.class));
+        when(transactionService.createTransactions(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        String row = "{\"description\":\"Salary\",\"amount\":10,\"type\":\"DEPOSIT\","
+                + "\"destinationAccount\":\"ACCT12345678\",\"status\":\"INITIATED\",\"bankReference\":\"BLOCKED\"}";
+        
+        mockMvc.perform(post("/api/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(row))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + row + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(0))
+                .andExpect(jsonPath("$.results[0].errors[0]").value("bankReference: Bank reference is blocked"));
+        
+        String unsigned = row.replace("\"amount\":10", "\"amount\":-10");
+        doAnswer(invocation -> null).when(transactionValidator).validate(any(Transaction.class), any(Errors.class));
+        mockMvc.perform(post("/api/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(unsigned))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + unsigned + "]"))
+                .andExpect(jsonPath("$.accepted").value(0))
+                .andExpect(jsonPath("$.results[0].errors[0]").value("amount: Amount must be positive"));
+        verify(transactionService, never()).createTransaction(any(Transaction.class));
+    }
+    
+    @Test
+    public void createTransactionsNdjson_Success() throws Exception {
+        when(transactionService.createTransactions(any())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            batch.forEach(transaction -> transaction.setId(200L));
+            return batch;
+        });
+        
+        String body = "{\"description\":\"Salary\",\"amount\":10,\"type\":\"DEPOSIT\",\"destinationAccount\":\"ACCT12345678\"}\n"
+                + "{\"description\":\"\",\"amount\":-1,\"type\":\"DEPOSIT\",\"destinationAccount\":\"ACCT12345678\"}\n";
+        
+        mockMvc.perform(post("/api/transactions/batch")
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[1].errors.length()").value(2));
+    }
+    
+    @Test
+    public void updateTransactionStatus_ReturnsNewETag() throws Exception {
+        Transaction updated = new Transaction();
+        updated.setId(42L);
+        updated.setStatus(TransactionStatus.PROCESSING);
+        updated.setVersion(4L);
+        when(transactionService.updateTransactionStatus(42L, TransactionStatus.PROCESSING, 3L)).thenReturn(updated);
+
+        mockMvc.perform(patch("/api/transactions/42/status")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"PROCESSING\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    public void updateTransactionStatus_MapsConflicts() throws Exception {
+        when(transactionService.updateTransactionStatus(42L, TransactionStatus.FAILED, 3L))
+                .thenThrow(new VersionConflictException(3L, 5L));
+        when(transactionService.updateTransactionStatus(42L, TransactionStatus.PENDING, null))
+                .thenThrow(new InvalidStatusTransitionException(TransactionStatus.COMPLETED, TransactionStatus.PENDING));
+
+        mockMvc.perform(patch("/api/transactions/42/status")
+                .header("If-Match", "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"FAILED\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"5\""));
+        mockMvc.perform(patch("/api/transactions/42/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"PENDING\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void updateTransaction_MapsStaleVersionsAndInvalidTransitions() throws Exception {
+        when(transactionService.updateTransaction(eq(42L), any(Transaction.class), eq(3L)))
+                .thenThrow(new VersionConflictException(3L, 5L));
+        when(transactionService.updateTransaction(eq(42L), any(Transaction.class), isNull()))
+                .thenThrow(new InvalidStatusTransitionException(TransactionStatus.COMPLETED, TransactionStatus.PENDING));
+
+        mockMvc.perform(put("/api/transactions/42")
+                .header("If-Match", "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"PROCESSING\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"5\""));
+        mockMvc.perform(put("/api/transactions/42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"PENDING\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void updateTransactions_AppliesStatusToFilteredRows() throws Exception {
+        when(transactionService.updateTransactionStatuses(any(TransactionQuery.class), eq(TransactionStatus.COMPLETED)))
+                .thenReturn(new BulkUpdateResult(5, 0));
+
+        mockMvc.perform(put("/api/transactions/bulk")
+                .param("type", "DEPOSIT")
+                .param("status", "PENDING")
+                .param("from", "2024-03-01T00:00:00")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"COMPLETED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(5));
+
+        ArgumentCaptor<TransactionQuery> query = ArgumentCaptor.forClass(TransactionQuery.class);
+        verify(transactionService).updateTransactionStatuses(query.capture(), eq(TransactionStatus.COMPLETED));
+        assertEquals(TransactionType.DEPOSIT, query.getValue().getType());
+        assertEquals(TransactionStatus.PENDING, query.getValue().getStatus());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), query.getValue().getFrom());
+    }
+
+    @Test
+    public void updateTransactions_ReportsRowsSkippedAsInvalidTransitions() throws Exception {
+        when(transactionService.updateTransactionStatuses(any(TransactionQuery.class), eq(TransactionStatus.PENDING)))
+                .thenReturn(new BulkUpdateResult(1, 2));
+
+        mockMvc.perform(put("/api/transactions/bulk")
+                .param("type", "DEPOSIT")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"PENDING\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1))
+                .andExpect(jsonPath("$.skipped").value(2));
+    }
+
+    @Test
+    public void deleteTransactions_WithoutFilterIsBadRequest() throws Exception {
+        when(transactionService.deleteTransactions(any(TransactionQuery.class)))
+                .thenThrow(new IllegalArgumentException("At least one filter is required for bulk operations"));
+
+        mockMvc.perform(delete("/api/transactions/bulk"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    public void streamTransactions_SubscriberLimitReached() throws Exception {
+        when(transactionFeed.subscribe(TransactionType.DEPOSIT, null)).thenReturn(null);
+
+        mockMvc.perform(get("/api/transactions/stream").param("type", "DEPOSIT")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable());
+    }
+    
     @Test
     public void deleteTransaction_Success() throws Exception {
         Long id = 123456789L;
@@ -0,0 +1,17 @@
+package com.bank.transaction.service;
+
+import com.bank.transaction.service.store.OffHeapTransactionStore;
+import com.bank.transaction.service.store.StringDictionary;
+import com.bank.transaction.service.store.TransactionStore;
+
+/**
+ * Runs the service tests against the off-heap columnar storage engine
+ */
+public class OffHeapTransactionServiceImplTest extends TransactionServiceImplTest {
+
+    @Override
+    protected TransactionStore createStore() {
+        // Small segments so the tests exercise column growth
+        return new OffHeapTransactionStore(new StringDictionary(), 4, 2);
+    }
+}
@@ -0,0 +1,735 @@
+package com.bank.transaction.service;
+
+import com.bank.transaction.exception.InvalidStatusTransitionException;
+import com.bank.transaction.exception.VersionConflictException;
+import com.bank.transaction.model.AccountBalance;
+import com.bank.transaction.model.AggregateGroup;
+import com.bank.transaction.model.AggregateMetric;
+import com.bank.transaction.model.BulkUpdateResult;
+import com.bank.transaction.model.StatusChange;
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionAggregate;
+import com.bank.transaction.model.TransactionPage;
+import com.bank.transaction.model.TransactionQuery;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.service.impl.TransactionServiceImpl;
+import com.bank.transaction.service.persistence.DurabilityLevel;
+import com.bank.transaction.service.persistence.WriteAheadLog;
+import com.bank.transaction.service.store.HeapTransactionStore;
+import com.bank.transaction.service.store.StringDictionary;
+import com.bank.transaction.service.store.TransactionStore;
+import com.bank.transaction.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionServiceImplTest {
+
+    protected TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    public void setup() {
+        transactionService = new TransactionServiceImpl();
+        ReflectionTestUtils.setField(transactionService, "idGenerator", new SnowflakeIdGenerator());
+        ReflectionTestUtils.setField(transactionService, "transactionStore", createStore());
+        ReflectionTestUtils.setField(transactionService, "writeAheadLog",
+                new WriteAheadLog(false, null, DurabilityLevel.FSYNC, DataSize.ofMegabytes(1), Duration.ofMillis(10)));
+    }
+
+    /**
+     * Storage engine under test; subclasses run the same cases against other engines
+     */
+    protected TransactionStore createStore() {
+        return new HeapTransactionStore(new StringDictionary());
+    }
+
+    protected Transaction newTransaction(TransactionType type, TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setDescription("Test " + type);
+        transaction.setAmount(new BigDecimal("100.00"));
+        transaction.setType(type);
+        transaction.setStatus(status);
+        if (type != TransactionType.DEPOSIT) {
+            transaction.setSourceAccount("ACCT12345678");
+        }
+        if (type != TransactionType.WITHDRAWAL) {
+            transaction.setDestinationAccount("ACCT87654321");
+        }
+        return transaction;
+    }
+
+    // ==================== INDEXED FILTER TESTS ====================
+
+    @Test
+    public void filteredQueries_UseTypeAndStatusIndexes() {
+        transactionService.createTransaction(newTransaction(TransactionType.DEPOSIT, TransactionStatus.INITIATED));
+        transactionService.createTransaction(newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+        transactionService.createTransaction(newTransaction(TransactionType.TRANSFER, TransactionStatus.COMPLETED));
+
+        assertEquals(2, transactionService.getTransactionCount(TransactionType.DEPOSIT, null, null));
+        assertEquals(2, transactionService.getTransactionCount(null, TransactionStatus.COMPLETED, null));
+        assertEquals(1, transactionService.getTransactionCount(TransactionType.DEPOSIT, TransactionStatus.COMPLETED, null));
+        assertEquals(0, transactionService.getTransactionCount(TransactionType.WITHDRAWAL, null, null));
+        assertEquals(3, transactionService.getTransactionCount(null, null, null));
+
+        List<Transaction> page = transactionService.getTransactionsPaged(0, 10, TransactionType.TRANSFER, null, null);
+        assertEquals(1, page.size());
+        assertEquals(TransactionType.TRANSFER, page.get(0).getType());
+    }
+
+    @Test
+    public void updateTransaction_MovesTransactionBetweenIndexes() {
+        Transaction created = transactionService.createTransaction(
+                newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.PENDING));
+
+        Transaction replacement = newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.FAILED);
+        transactionService.updateTransaction(created.getId(), replacement, null);
+
+        assertEquals(0, transactionService.getTransactionCount(null, TransactionStatus.PENDING, null));
+        assertEquals(1, transactionService.getTransactionCount(null, TransactionStatus.FAILED, null));
+    }
+
+    @Test
+    public void deleteTransaction_RemovesTransactionFromIndexes() {
+        Transaction created = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.INITIATED));
+
+        transactionService.deleteTransaction(created.getId());
+
+        assertEquals(0, transactionService.getTransactionCount(TransactionType.DEPOSIT, null, null));
+        assertTrue(transactionService.getTransactionsPaged(0, 10, null, TransactionStatus.INITIATED, null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> transactionService.deleteTransaction(created.getId()));
+    }
+
+    @Test
+    public void createTransaction_RefusesIdAlreadyInUse() {
+        Transaction stored = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+        ReflectionTestUtils.setField(transactionService, "idGenerator", new SnowflakeIdGenerator() {
+            @Override
+            public long nextId() {
+                return stored.getId();
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> transactionService.createTransaction(
+                newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.PENDING)));
+        assertEquals(TransactionType.DEPOSIT, transactionService.getTransaction(stored.getId()).getType());
+        assertEquals(1, transactionService.getTransactionCount(null, null, null));
+    }
+
+    @Test
+    public void createTransaction_ReturnsWhatLaterReadsReturn() {
+        Transaction transaction = newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING);
+        transaction.setAmount(new BigDecimal("10.5"));
+        transaction.setTimestamp(LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_456_789));
+
+        Transaction created = transactionService.createTransaction(transaction);
+
+        assertEquals(new BigDecimal("10.50"), created.getAmount());
+        assertEquals(LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_000_000), created.getTimestamp());
+        Transaction read = transactionService.getTransaction(created.getId());
+        assertEquals(created.getAmount(), read.getAmount());
+        assertEquals(created.getTimestamp(), read.getTimestamp());
+
+        Transaction precise = newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING);
+        precise.setAmount(new BigDecimal("10.005"));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.createTransaction(precise));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.updateTransaction(created.getId(), precise, null));
+        assertEquals(1, transactionService.getAllTransactions().size());
+    }
+
+    @Test
+    public void getTransactionsById_ReturnsExistingTransactionsInIdOrder() {
+        Long first = transactionService.createTransaction(newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING)).getId();
+        Long second = transactionService.createTransaction(newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.PENDING)).getId();
+
+        List<Transaction> found = transactionService.getTransactionsById(List.of(second, -1L, first));
+
+        assertEquals(List.of(second, first), found.stream().map(Transaction::getId).toList());
+    }
+
+    // ==================== ORDERING AND PAGING TESTS ====================
+
+    @Test
+    public void getTransactionsPaged_ReturnsNewestFirstAcrossPages() {
+        LocalDateTime base = LocalDateTime.of(2024, 3, 15, 10, 30);
+        Transaction oldest = newTransaction(TransactionType.DEPOSIT, TransactionStatus.INITIATED);
+        oldest.setTimestamp(base);
+        Transaction newest = newTransaction(TransactionType.DEPOSIT, TransactionStatus.INITIATED);
+        newest.setTimestamp(base.plusHours(2));
+        Transaction middle = newTransaction(TransactionType.DEPOSIT, TransactionStatus.INITIATED);
+        middle.setTimestamp(base.plusHours(1));
+        transactionService.createTransaction(oldest);
+        transactionService.createTransaction(newest);
+        transactionService.createTransaction(middle);
+
+        List<Transaction> firstPage = transactionService.getTransactionsPaged(0, 2, null, null, null);
+        List<Transaction> secondPage = transactionService.getTransactionsPaged(1, 2, null, null, null);
+
+        assertEquals(List.of(newest.getId(), middle.getId()), firstPage.stream().map(Transaction::getId).toList());
+        assertEquals(List.of(oldest.getId()), secondPage.stream().map(Transaction::getId).toList());
+        assertTrue(transactionService.getTransactionsPaged(2, 2, null, null, null).isEmpty());
+    }
+
+    @Test
+    public void updateTransaction_ReordersWhenTimestampChanges() {
+        LocalDateTime base = LocalDateTime.of(2024, 3, 15, 10, 30);
+        Transaction first = newTransaction(TransactionType.TRANSFER, TransactionStatus.PENDING);
+        first.setTimestamp(base);
+        Transaction second = newTransaction(TransactionType.TRANSFER, TransactionStatus.PENDING);
+        second.setTimestamp(base.plusMinutes(5));
+        transactionService.createTransaction(first);
+        transactionService.createTransaction(second);
+
+        Transaction replacement = newTransaction(TransactionType.TRANSFER, TransactionStatus.PENDING);
+        replacement.setTimestamp(base.plusMinutes(10));
+        transactionService.updateTransaction(first.getId(), replacement, null);
+
+        List<Transaction> page = transactionService.getTransactionsPaged(0, 10, TransactionType.TRANSFER, null, null);
+        assertEquals(List.of(first.getId(), second.getId()), page.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    public void getTransactionsPaged_RejectsNegativePage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactionsPaged(-1, 10, null, null, null));
+    }
+
+    // ==================== CURSOR PAGING TESTS ====================
+
+    @Test
+    public void queryTransactions_WalksAllPagesWithCursor() {
+        for (int i = 0; i < 5; i++) {
+            transactionService.createTransaction(newTransaction(TransactionType.DEPOSIT, TransactionStatus.INITIATED));
+        }
+        transactionService.createTransaction(newTransaction(TransactionType.TRANSFER, TransactionStatus.INITIATED));
+
+        TransactionPage first = transactionService.queryTransactions(cursorQuery("", 2, TransactionType.DEPOSIT));
+        TransactionPage second = transactionService.queryTransactions(cursorQuery(first.getNextCursor(), 2, TransactionType.DEPOSIT));
+        TransactionPage third = transactionService.queryTransactions(cursorQuery(second.getNextCursor(), 2, TransactionType.DEPOSIT));
+
+        assertEquals(2, first.getContent().size());
+        assertEquals(2, second.getContent().size());
+        assertEquals(1, third.getContent().size());
+        assertNull(third.getNextCursor());
+        assertEquals(-1, third.getTotalElements());
+        assertEquals(transactionService.getTransactionsPaged(1, 2, TransactionType.DEPOSIT, null, null), second.getContent());
+    }
+
+    @Test
+    public void queryTransactions_RejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.queryTransactions(cursorQuery("not-a-cursor", 10, null)));
+    }
+
+    // ==================== SINGLE-PASS QUERY TESTS ====================
+
+    @Test
+    public void queryTransactions_ReturnsPageAndTotalTogether() {
+        for (int i = 0; i < 5; i++) {
+            transactionService.createTransaction(newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.PENDING));
+        }
+        transactionService.createTransaction(newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING));
+
+        TransactionPage page = transactionService.queryTransactions(
+                new TransactionQuery(1, 2, TransactionType.WITHDRAWAL, TransactionStatus.PENDING, null));
+
+        assertEquals(5, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(transactionService.getTransactionsPaged(1, 2, TransactionType.WITHDRAWAL, null, null), page.getContent());
+        assertNotNull(page.getNextCursor());
+
+        TransactionPage resumed = transactionService.queryTransactions(cursorQuery(page.getNextCursor(), 2, TransactionType.WITHDRAWAL));
+        assertEquals(transactionService.getTransactionsPaged(2, 2, TransactionType.WITHDRAWAL, null, null), resumed.getContent());
+    }
+
+    // ==================== TIME RANGE TESTS ====================
+
+    @Test
+    public void queryTransactions_RestrictsToTimeRange() {
+        LocalDateTime base = LocalDateTime.of(2024, 3, 15, 10, 30);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Transaction transaction = newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+            transaction.setTimestamp(base.plusHours(i));
+            ids.add(transactionService.createTransaction(transaction).getId());
+        }
+
+        TransactionQuery query = new TransactionQuery(0, 10, null, null, null);
+        query.setFrom(base.plusHours(1));
+        query.setTo(base.plusHours(3));
+        TransactionPage page = transactionService.queryTransactions(query);
+
+        assertEquals(List.of(ids.get(2), ids.get(1)), page.getContent().stream().map(Transaction::getId).toList());
+        assertEquals(2, page.getTotalElements());
+
+        query.setFrom(null);
+        query.setTo(base.plusHours(1).plusNanos(1));
+        query.setAfter("");
+        assertEquals(List.of(ids.get(1), ids.get(0)), transactionService.queryTransactions(query)
+                .getContent().stream().map(Transaction::getId).toList());
+
+        query.setFrom(base.plusHours(4));
+        query.setTo(base.plusHours(4));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.queryTransactions(query));
+    }
+
+    // ==================== COUNT MATRIX TESTS ====================
+
+    @Test
+    public void countMatrix_TracksCreateUpdateAndDelete() {
+        Transaction deposit = transactionService.createTransaction(newTransaction(TransactionType.DEPOSIT, TransactionStatus.PROCESSING));
+        Transaction transfer = transactionService.createTransaction(newTransaction(TransactionType.TRANSFER, TransactionStatus.PENDING));
+        transactionService.createTransaction(newTransaction(TransactionType.TRANSFER, TransactionStatus.COMPLETED));
+
+        transactionService.updateTransaction(deposit.getId(), newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED), null);
+        transactionService.deleteTransaction(transfer.getId());
+
+        Map<TransactionType, Map<TransactionStatus, Long>> counts = transactionService.getTransactionCountsByTypeAndStatus();
+        assertEquals(1L, counts.get(TransactionType.DEPOSIT).get(TransactionStatus.COMPLETED));
+        assertEquals(0L, counts.get(TransactionType.DEPOSIT).get(TransactionStatus.PROCESSING));
+        assertEquals(1L, counts.get(TransactionType.TRANSFER).get(TransactionStatus.COMPLETED));
+        assertEquals(0L, counts.get(TransactionType.TRANSFER).get(TransactionStatus.PENDING));
+        assertEquals(2, transactionService.getTransactionCount(null, null, null));
+        assertEquals(2, transactionService.getTransactionCount(null, TransactionStatus.COMPLETED, ""));
+    }
+
+    // ==================== ID SEARCH TESTS ====================
+
+    @Test
+    public void search_MatchesIdSubstringsThroughIndex() {
+        Transaction first = transactionService.createTransaction(newTransaction(TransactionType.DEPOSIT, TransactionStatus.INITIATED));
+        Transaction second = transactionService.createTransaction(newTransaction(TransactionType.DEPOSIT, TransactionStatus.INITIATED));
+        String firstId = first.getId().toString();
+        String suffix = firstId.substring(firstId.length() - 6);
+        long expected = List.of(first, second).stream()
+                .filter(t -> t.getId().toString().contains(suffix))
+                .count();
+
+        assertEquals(expected, transactionService.getTransactionCount(null, null, suffix));
+        assertEquals(1, transactionService.getTransactionCount(null, null, firstId));
+        assertEquals(2, transactionService.getTransactionCount(null, null, firstId.substring(0, 2)));
+        assertEquals(0, transactionService.getTransactionCount(null, null, "abc"));
+        assertEquals(0, transactionService.getTransactionCount(TransactionType.TRANSFER, null, firstId));
+
+        TransactionPage page = transactionService.queryTransactions(new TransactionQuery(0, 10, null, null, firstId));
+        assertEquals(List.of(first.getId()), page.getContent().stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    public void search_IgnoresDeletedTransactions() {
+        Transaction created = transactionService.createTransaction(newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.PENDING));
+        String id = created.getId().toString();
+
+        transactionService.deleteTransaction(created.getId());
+
+        assertEquals(0, transactionService.getTransactionCount(null, null, id));
+        assertEquals(0, transactionService.getTransactionCount(null, null, id.substring(3, 10)));
+    }
+
+    @Test
+    public void getAccountTransactions_PagesThroughOneAccountHistory() {
+        LocalDateTime base = LocalDateTime.of(2024, 3, 15, 10, 30);
+        Transaction deposit = newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        deposit.setTimestamp(base);
+        Transaction transfer = newTransaction(TransactionType.TRANSFER, TransactionStatus.COMPLETED);
+        transfer.setTimestamp(base.plusSeconds(1));
+        Transaction withdrawal = newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.COMPLETED);
+        withdrawal.setTimestamp(base.plusSeconds(2));
+        transactionService.createTransaction(deposit);
+        transactionService.createTransaction(transfer);
+        transactionService.createTransaction(withdrawal);
+
+        TransactionPage first = transactionService.getAccountTransactions("ACCT87654321", 1, null);
+        TransactionPage second = transactionService.getAccountTransactions("ACCT87654321", 1, first.getNextCursor());
+
+        assertEquals(List.of(transfer.getId()), first.getContent().stream().map(Transaction::getId).toList());
+        assertEquals(List.of(deposit.getId()), second.getContent().stream().map(Transaction::getId).toList());
+        assertNull(second.getNextCursor());
+
+        Transaction moved = newTransaction(TransactionType.TRANSFER, TransactionStatus.COMPLETED);
+        moved.setDestinationAccount("ACCT00000001");
+        transactionService.updateTransaction(transfer.getId(), moved, null);
+        transactionService.deleteTransaction(withdrawal.getId());
+
+        assertEquals(List.of(deposit.getId()), transactionService.getAccountTransactions("ACCT87654321", 10, null)
+                .getContent().stream().map(Transaction::getId).toList());
+        assertEquals(List.of(transfer.getId()), transactionService.getAccountTransactions("ACCT12345678", 10, null)
+                .getContent().stream().map(Transaction::getId).toList());
+        assertTrue(transactionService.getAccountTransactions("UNKNOWN00", 10, null).getContent().isEmpty());
+    }
+
+    @Test
+    public void getAccountBalance_AppliesAndReversesDeltas() {
+        Transaction deposit = newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        deposit.setDestinationAccount("ACCT12345678");
+        deposit.setAmount(new BigDecimal("500.00"));
+        transactionService.createTransaction(deposit);
+        Transaction transfer = transactionService.createTransaction(newTransaction(TransactionType.TRANSFER, TransactionStatus.PROCESSING));
+        Transaction withdrawal = transactionService.createTransaction(newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.COMPLETED));
+
+        assertEquals(new AccountBalance("ACCT12345678", new BigDecimal("400.00"), new BigDecimal("-100.00")),
+                transactionService.getAccountBalance("ACCT12345678"));
+        assertEquals(new BigDecimal("100.00"), transactionService.getAccountBalance("ACCT87654321").getPendingBalance());
+
+        Transaction settled = newTransaction(TransactionType.TRANSFER, TransactionStatus.COMPLETED);
+        settled.setAmount(new BigDecimal("150.00"));
+        transactionService.updateTransaction(transfer.getId(), settled, null);
+        transactionService.deleteTransaction(withdrawal.getId());
+
+        assertEquals(new AccountBalance("ACCT12345678", new BigDecimal("350.00"), new BigDecimal("0.00")),
+                transactionService.getAccountBalance("ACCT12345678"));
+        assertEquals(new BigDecimal("150.00"), transactionService.getAccountBalance("ACCT87654321").getBalance());
+        assertNull(transactionService.getAccountBalance("UNKNOWN00"));
+    }
+
+    @Test
+    public void createTransaction_RejectsWriteThatWouldOverflowABalance() {
+        BigDecimal largest = new BigDecimal(Long.MAX_VALUE).movePointLeft(2);
+        Transaction deposit = newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        deposit.setSourceAccount(null);
+        deposit.setAmount(largest);
+        transactionService.createTransaction(deposit);
+
+        Transaction more = newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        more.setSourceAccount(null);
+        more.setAmount(new BigDecimal("0.01"));
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.createTransaction(more));
+        assertEquals(largest, transactionService.getAccountBalance("ACCT87654321").getBalance());
+        assertEquals(1, transactionService.getTransactionCount(null, null, null));
+    }
+
+    @Test
+    public void streamTransactions_AppliesFiltersNewestFirst() {
+        LocalDateTime base = LocalDateTime.of(2024, 3, 15, 10, 30);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.COMPLETED);
+            transaction.setTimestamp(base.plusMinutes(i));
+            ids.add(transactionService.createTransaction(transaction).getId());
+        }
+        transactionService.createTransaction(newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+
+        try (Stream<Transaction> stream = transactionService.streamTransactions(
+                new TransactionQuery(0, 1, TransactionType.WITHDRAWAL, null, null))) {
+            assertEquals(List.of(ids.get(2), ids.get(1), ids.get(0)), stream.map(Transaction::getId).toList());
+        }
+    }
+
+    @Test
+    public void createTransactions_AssignsIncreasingIdsAndIndexes() {
+        List<Transaction> batch = List.of(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED),
+                newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.PENDING),
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+
+        List<Transaction> created = transactionService.createTransactions(batch);
+
+        assertEquals(3, created.size());
+        assertTrue(created.get(0).getId() < created.get(1).getId());
+        assertTrue(created.get(1).getId() < created.get(2).getId());
+        assertEquals(TransactionType.WITHDRAWAL, transactionService.getTransaction(created.get(1).getId()).getType());
+        assertEquals(2, transactionService.getTransactionCount(TransactionType.DEPOSIT, null, null));
+    }
+
+    // ==================== STATUS TRANSITION TESTS ====================
+
+    @Test
+    public void updateTransactionStatus_AdvancesVersionAndCounters() {
+        Transaction created = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING));
+        assertEquals(1L, created.getVersion());
+
+        Transaction processing = transactionService.updateTransactionStatus(created.getId(), TransactionStatus.PROCESSING, 1L);
+        Transaction completed = transactionService.updateTransactionStatus(created.getId(), TransactionStatus.COMPLETED, null);
+
+        assertEquals(2L, processing.getVersion());
+        assertEquals(3L, completed.getVersion());
+        assertEquals(TransactionStatus.COMPLETED, transactionService.getTransaction(created.getId()).getStatus());
+        assertEquals(3L, transactionService.getTransaction(created.getId()).getVersion());
+        assertEquals(1, transactionService.getTransactionCount(TransactionType.DEPOSIT, TransactionStatus.COMPLETED, null));
+        assertEquals(0, transactionService.getTransactionCount(TransactionType.DEPOSIT, TransactionStatus.PENDING, null));
+    }
+
+    @Test
+    public void updateTransactionStatus_RejectsStaleVersionsAndInvalidTransitions() {
+        Long id = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING)).getId();
+        transactionService.updateTransactionStatus(id, TransactionStatus.PROCESSING, 1L);
+
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> transactionService.updateTransactionStatus(id, TransactionStatus.FAILED, 1L));
+        assertEquals(2L, conflict.getCurrentVersion());
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> transactionService.updateTransactionStatus(id, TransactionStatus.PENDING, 2L));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.updateTransactionStatus(-1L, TransactionStatus.FAILED, null));
+        assertEquals(TransactionStatus.PROCESSING, transactionService.getTransaction(id).getStatus());
+        assertEquals(2L, transactionService.getTransaction(id).getVersion());
+    }
+
+    @Test
+    public void updateTransaction_RejectsStaleVersionsAndInvalidTransitions() {
+        Long id = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING)).getId();
+        transactionService.updateTransactionStatus(id, TransactionStatus.PROCESSING, 1L);
+        transactionService.updateTransactionStatus(id, TransactionStatus.COMPLETED, 2L);
+
+        Transaction edited = newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        edited.setDescription("Edited");
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> transactionService.updateTransaction(id, edited, 1L));
+        assertEquals(3L, conflict.getCurrentVersion());
+        assertThrows(InvalidStatusTransitionException.class, () -> transactionService.updateTransaction(id,
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING), null));
+        assertEquals(TransactionStatus.COMPLETED, transactionService.getTransaction(id).getStatus());
+        assertEquals(3L, transactionService.getTransaction(id).getVersion());
+        assertEquals(1, transactionService.getTransactionCount(TransactionType.DEPOSIT, TransactionStatus.COMPLETED, null));
+
+        Transaction updated = transactionService.updateTransaction(id, edited, 3L);
+        assertEquals(4L, updated.getVersion());
+        assertEquals("Edited", transactionService.getTransaction(id).getDescription());
+    }
+
+    @Test
+    public void applyStatusChanges_SkipsStaleVersionsAndInvalidTransitions() {
+        Long pending = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING)).getId();
+        Long stale = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING)).getId();
+        Long completed = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED)).getId();
+        LocalDateTime processedAt = LocalDateTime.of(2024, 3, 15, 12, 0);
+
+        List<Transaction> applied = transactionService.applyStatusChanges(List.of(
+                new StatusChange(pending, 1L, TransactionStatus.PROCESSING, "REF-1", processedAt),
+                new StatusChange(stale, 7L, TransactionStatus.PROCESSING, null, null),
+                new StatusChange(completed, 1L, TransactionStatus.FAILED, null, null),
+                new StatusChange(-1L, 1L, TransactionStatus.FAILED, null, null)));
+
+        assertEquals(1, applied.size());
+        Transaction processing = transactionService.getTransaction(pending);
+        assertEquals(TransactionStatus.PROCESSING, processing.getStatus());
+        assertEquals("REF-1", processing.getBankReference());
+        assertEquals(processedAt, processing.getProcessingDate());
+        assertEquals(2L, processing.getVersion());
+        assertEquals(TransactionStatus.PENDING, transactionService.getTransaction(stale).getStatus());
+        assertEquals(TransactionStatus.COMPLETED, transactionService.getTransaction(completed).getStatus());
+    }
+
+    // ==================== BULK TESTS ====================
+
+    @Test
+    public void updateTransactionStatuses_ChangesOnlyMatchingRowsAndCounters() {
+        LocalDateTime base = LocalDateTime.of(2024, 3, 15, 10, 30);
+        List<Long> pending = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING);
+            transaction.setTimestamp(base.plusMinutes(i));
+            pending.add(transactionService.createTransaction(transaction).getId());
+        }
+        Long withdrawal = transactionService.createTransaction(
+                newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.PENDING)).getId();
+        Transaction original = transactionService.getTransaction(pending.get(0));
+
+        TransactionQuery query = new TransactionQuery(0, 1, TransactionType.DEPOSIT, TransactionStatus.PENDING, null);
+        query.setTo(base.plusMinutes(2));
+        BulkUpdateResult result = transactionService.updateTransactionStatuses(query, TransactionStatus.PROCESSING);
+
+        assertEquals(2, result.getAffected());
+        assertEquals(0, result.getSkipped());
+        assertEquals(TransactionStatus.PENDING, original.getStatus());
+        assertEquals(TransactionStatus.PROCESSING, transactionService.getTransaction(pending.get(0)).getStatus());
+        assertEquals(TransactionStatus.PROCESSING, transactionService.getTransaction(pending.get(1)).getStatus());
+        assertEquals(TransactionStatus.PENDING, transactionService.getTransaction(pending.get(2)).getStatus());
+        assertEquals(TransactionStatus.PENDING, transactionService.getTransaction(withdrawal).getStatus());
+        assertEquals(2, transactionService.getTransactionCount(TransactionType.DEPOSIT, TransactionStatus.PROCESSING, null));
+        assertEquals(1, transactionService.getTransactionCount(TransactionType.DEPOSIT, TransactionStatus.PENDING, null));
+        assertEquals(0, transactionService.updateTransactionStatuses(query, TransactionStatus.PROCESSING).getAffected());
+    }
+
+    @Test
+    public void updateTransactionStatuses_SkipsInvalidTransitions() {
+        Long completed = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED)).getId();
+        Long failed = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.FAILED)).getId();
+        Long initiated = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.INITIATED)).getId();
+
+        TransactionQuery query = new TransactionQuery(0, 1, TransactionType.DEPOSIT, null, null);
+        BulkUpdateResult result = transactionService.updateTransactionStatuses(query, TransactionStatus.PENDING);
+
+        assertEquals(1, result.getAffected());
+        assertEquals(2, result.getSkipped());
+        assertEquals(TransactionStatus.COMPLETED, transactionService.getTransaction(completed).getStatus());
+        assertEquals(1L, transactionService.getTransaction(completed).getVersion());
+        assertEquals(TransactionStatus.FAILED, transactionService.getTransaction(failed).getStatus());
+        assertEquals(TransactionStatus.PENDING, transactionService.getTransaction(initiated).getStatus());
+    }
+
+    @Test
+    public void updateTransactionStatuses_FailsPendingTransfers() {
+        List<Long> pending = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            pending.add(transactionService.createTransaction(
+                    newTransaction(TransactionType.TRANSFER, TransactionStatus.PENDING)).getId());
+        }
+        Long completed = transactionService.createTransaction(
+                newTransaction(TransactionType.TRANSFER, TransactionStatus.COMPLETED)).getId();
+
+        TransactionQuery query = new TransactionQuery(0, 1, TransactionType.TRANSFER, TransactionStatus.PENDING, null);
+        BulkUpdateResult result = transactionService.updateTransactionStatuses(query, TransactionStatus.FAILED);
+
+        assertEquals(3, result.getAffected());
+        assertEquals(0, result.getSkipped());
+        for (Long id : pending) {
+            assertEquals(TransactionStatus.FAILED, transactionService.getTransaction(id).getStatus());
+            assertEquals(2L, transactionService.getTransaction(id).getVersion());
+        }
+        assertEquals(TransactionStatus.COMPLETED, transactionService.getTransaction(completed).getStatus());
+        assertEquals(3, transactionService.getTransactionCount(TransactionType.TRANSFER, TransactionStatus.FAILED, null));
+    }
+
+    @Test
+    public void deleteTransactions_RemovesMatchingRowsFromIndexes() {
+        Long kept = transactionService.createTransaction(
+                newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED)).getId();
+        for (int i = 0; i < 3; i++) {
+            transactionService.createTransaction(newTransaction(TransactionType.WITHDRAWAL, TransactionStatus.FAILED));
+        }
+
+        long affected = transactionService.deleteTransactions(
+                new TransactionQuery(0, 1, null, TransactionStatus.FAILED, null));
+
+        assertEquals(3, affected);
+        assertEquals(1, transactionService.getAllTransactions().size());
+        assertEquals(0, transactionService.getTransactionCount(TransactionType.WITHDRAWAL, null, null));
+        assertEquals(kept, transactionService.getTransactionsPaged(0, 10, null, null, null).get(0).getId());
+    }
+
+    @Test
+    public void bulkDelete_CompactsSearchIndexWhileOthersWrite() throws Exception {
+        // Enough deletes to trigger an ID search index rebuild
+        for (int batch = 0; batch < 15; batch++) {
+            List<Transaction> deposits = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                deposits.add(newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+            }
+            transactionService.createTransactions(deposits);
+        }
+        AtomicBoolean deleting = new AtomicBoolean(true);
+        List<Transaction> created = new CopyOnWriteArrayList<>();
+        Thread writer = new Thread(() -> {
+            while (deleting.get()) {
+                created.add(transactionService.createTransaction(
+                        newTransaction(TransactionType.TRANSFER, TransactionStatus.PENDING)));
+            }
+        });
+        writer.start();
+
+        long deleted = assertTimeoutPreemptively(Duration.ofSeconds(60), () -> transactionService.deleteTransactions(
+                new TransactionQuery(0, 1, TransactionType.DEPOSIT, null, null)));
+        deleting.set(false);
+        writer.join(10_000);
+
+        assertEquals(150_000, deleted);
+        assertFalse(writer.isAlive());
+        assertEquals(created.size(), transactionService.getTransactionCount(null, null, null));
+        // IDs written during the rebuild are still found through the new generation, once each
+        for (Transaction transaction : List.of(created.get(0), created.get(created.size() - 1))) {
+            String id = transaction.getId().toString();
+            assertEquals(List.of(transaction.getId()),
+                    transactionService.queryTransactions(new TransactionQuery(0, 10, null, null, id.substring(1)))
+                            .getContent().stream().map(Transaction::getId).toList());
+        }
+    }
+
+    @Test
+    public void bulkOperations_RequireAFilter() {
+        TransactionQuery unfiltered = new TransactionQuery(0, 1, null, null, null);
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.updateTransactionStatuses(unfiltered, TransactionStatus.FAILED));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.deleteTransactions(unfiltered));
+    }
+
+    // ==================== AGGREGATION TESTS ====================
+
+    @Test
+    public void aggregateTransactions_GroupsByTypeAndDay() {
+        LocalDateTime day = LocalDateTime.of(2024, 3, 15, 10, 30);
+        Transaction first = newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        first.setTimestamp(day);
+        Transaction second = newTransaction(TransactionType.DEPOSIT, TransactionStatus.PENDING);
+        second.setTimestamp(day.plusHours(2));
+        second.setAmount(new BigDecimal("50.25"));
+        Transaction nextDay = newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        nextDay.setTimestamp(day.plusDays(1));
+        Transaction transfer = newTransaction(TransactionType.TRANSFER, TransactionStatus.COMPLETED);
+        transfer.setTimestamp(day);
+        for (Transaction transaction : List.of(first, second, nextDay, transfer)) {
+            transactionService.createTransaction(transaction);
+        }
+
+        List<TransactionAggregate> rows = transactionService.aggregateTransactions(
+                EnumSet.of(AggregateGroup.TYPE, AggregateGroup.DAY), EnumSet.allOf(AggregateMetric.class));
+
+        assertEquals(3, rows.size());
+        TransactionAggregate deposits = rows.get(0);
+        assertEquals(TransactionType.DEPOSIT, deposits.getType());
+        assertNull(deposits.getStatus());
+        assertEquals(day.toLocalDate(), deposits.getDay());
+        assertEquals(2L, deposits.getCount());
+        assertEquals(new BigDecimal("150.25"), deposits.getSum());
+        assertEquals(new BigDecimal("75.12"), deposits.getAvg());
+        assertEquals(day.toLocalDate().plusDays(1), rows.get(1).getDay());
+        assertEquals(TransactionType.TRANSFER, rows.get(2).getType());
+
+        List<TransactionAggregate> overall = transactionService.aggregateTransactions(
+                EnumSet.noneOf(AggregateGroup.class), EnumSet.of(AggregateMetric.COUNT));
+        assertEquals(1, overall.size());
+        assertEquals(4L, overall.get(0).getCount());
+        assertNull(overall.get(0).getSum());
+    }
+
+    @Test
+    public void aggregateTransactions_SumOutgrowingLongFallsBackToBigDecimal() {
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = newTransaction(TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+            transaction.setAmount(new BigDecimal("50000000000000000.00"));
+            // Separate accounts, as one account's balance cannot hold the sum either
+            transaction.setSourceAccount("ACCT1000000" + i);
+            transaction.setDestinationAccount("ACCT2000000" + i);
+            transactionService.createTransaction(transaction);
+        }
+
+        List<TransactionAggregate> rows = transactionService.aggregateTransactions(
+                EnumSet.noneOf(AggregateGroup.class), EnumSet.allOf(AggregateMetric.class));
+
+        assertEquals(new BigDecimal("150000000000000000.00"), rows.get(0).getSum());
+        assertEquals(new BigDecimal("50000000000000000.00"), rows.get(0).getAvg());
+    }
+
+    private TransactionQuery cursorQuery(String after, int size, TransactionType type) {
+        TransactionQuery query = new TransactionQuery(0, size, type, null, null);
+        query.setAfter(after);
+        return query;
+    }
+}
@@ -0,0 +1,190 @@
+package com.bank.transaction.service.feed;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.service.TransactionsCreatedEvent;
+import com.bank.transaction.service.TransactionsDeletedEvent;
+import com.bank.transaction.service.TransactionsUpdatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionFeedTest {
+
+    private TransactionFeed feed;
+
+    @AfterEach
+    public void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    public void sendsMatchingChangesAndFilterExitsAsDeletions() throws Exception {
+        feed = newFeed(100);
+        RecordingEmitter pending = new RecordingEmitter();
+        RecordingEmitter deposits = new RecordingEmitter();
+        feed.register(pending, null, TransactionStatus.PENDING);
+        feed.register(deposits, TransactionType.DEPOSIT, null);
+
+        Transaction created = transaction(1L, TransactionType.DEPOSIT, TransactionStatus.PENDING);
+        feed.onCreated(new TransactionsCreatedEvent(List.of(created)));
+        awaitEvents(pending, 1);
+        awaitEvents(deposits, 1);
+
+        Transaction completed = transaction(1L, TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        feed.onUpdated(new TransactionsUpdatedEvent(List.of(created), List.of(completed)));
+        awaitEvents(pending, 2);
+        awaitEvents(deposits, 2);
+
+        // A withdrawal is of no interest to either subscriber once it left PENDING
+        Transaction withdrawal = transaction(2L, TransactionType.WITHDRAWAL, TransactionStatus.FAILED);
+        feed.onDeleted(new TransactionsDeletedEvent(List.of(withdrawal, completed)));
+        awaitEvents(deposits, 3);
+
+        assertEquals(List.of("created", "deleted"), pending.names());
+        assertEquals(List.of("created", "updated", "deleted"), deposits.names());
+        assertTrue(deposits.data.get(1).contains("\"COMPLETED\""));
+        assertEquals("{\"id\":1}", deposits.data.get(2));
+    }
+
+    @Test
+    public void coalescesBacklogIntoReset() throws Exception {
+        feed = newFeed(3);
+        FeedSubscriber subscriber = feed.register(new RecordingEmitter(), null, null);
+
+        // Offered directly and never drained, so the backlog builds up as behind a blocked write
+        assertTrue(subscriber.offer(1L, new FeedEvent(FeedEvent.CREATED, "{\"id\":1}")));
+        assertFalse(subscriber.offer(1L, new FeedEvent(FeedEvent.UPDATED, "{\"id\":1,\"v\":2}")));
+        assertEquals(List.of(new FeedEvent(FeedEvent.CREATED, "{\"id\":1,\"v\":2}")), subscriber.take());
+
+        subscriber.offer(2L, new FeedEvent(FeedEvent.CREATED, "{}"));
+        subscriber.offer(2L, new FeedEvent(FeedEvent.DELETED, "{}"));
+        for (long id = 3; id <= 6; id++) {
+            subscriber.offer(id, new FeedEvent(FeedEvent.UPDATED, "{}"));
+        }
+        assertEquals(List.of(FeedEvent.RESET_EVENT), subscriber.take());
+        assertNull(subscriber.take());
+
+        assertEquals(1, feed.subscriberCount());
+    }
+
+    @Test
+    public void blockedSubscribersDoNotStallOthersAndAreDropped() throws Exception {
+        feed = newFeed(100, Duration.ofMillis(50));
+        List<BlockedEmitter> blocked = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            BlockedEmitter emitter = new BlockedEmitter();
+            feed.register(emitter, null, null);
+            blocked.add(emitter);
+        }
+        RecordingEmitter reader = new RecordingEmitter();
+        feed.register(reader, null, null);
+
+        feed.onCreated(new TransactionsCreatedEvent(List.of(
+                transaction(1L, TransactionType.DEPOSIT, TransactionStatus.PENDING))));
+        awaitEvents(reader, 1);
+        for (BlockedEmitter emitter : blocked) {
+            assertTrue(emitter.writing.await(2, TimeUnit.SECONDS));
+        }
+
+        feed.onCreated(new TransactionsCreatedEvent(List.of(
+                transaction(2L, TransactionType.DEPOSIT, TransactionStatus.PENDING))));
+        awaitEvents(reader, 2);
+
+        Thread.sleep(100);
+        feed.heartbeat();
+        assertEquals(1, feed.subscriberCount());
+        for (BlockedEmitter emitter : blocked) {
+            assertTrue(emitter.interrupted.await(2, TimeUnit.SECONDS));
+        }
+    }
+
+    private static TransactionFeed newFeed(int maxPending) {
+        return newFeed(maxPending, Duration.ofSeconds(10));
+    }
+
+    private static TransactionFeed newFeed(int maxPending, Duration sendTimeout) {
+        TransactionFeed feed = new TransactionFeed(new ObjectMapper().findAndRegisterModules(),
+                Duration.ofMinutes(1), 10, maxPending, 16, sendTimeout);
+        feed.start();
+        return feed;
+    }
+
+    private static Transaction transaction(long id, TransactionType type, TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setType(type);
+        transaction.setStatus(status);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setDestinationAccount("ACCT12345678");
+        transaction.setVersion(1L);
+        return transaction;
+    }
+
+    private static void awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+        for (int i = 0; i < 200 && emitter.data.size() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(emitter.data.size() >= count, "Expected " + count + " events, got " + emitter.names());
+    }
+
+    /**
+     * Never returns from a write, like a client that stopped reading, until interrupted
+     */
+    private static class BlockedEmitter extends SseEmitter {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writing.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    /**
+     * Captures events instead of writing them to a response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> lines = new CopyOnWriteArrayList<>();
+        final List<String> data = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            Set<DataWithMediaType> parts = builder.build();
+            StringBuilder text = new StringBuilder();
+            parts.forEach(part -> text.append(part.getData()));
+            String event = text.toString();
+            if (event.startsWith(":")) {
+                return;
+            }
+            lines.add(event.substring("event:".length(), event.indexOf('\n')));
+            String payload = event.substring(event.indexOf("data:") + "data:".length());
+            data.add(payload.strip());
+        }
+
+        List<String> names() {
+            return List.copyOf(lines);
+        }
+    }
+}
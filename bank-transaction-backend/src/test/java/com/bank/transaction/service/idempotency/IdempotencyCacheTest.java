@@ -0,0 +1,103 @@
+package com.bank.transaction.service.idempotency;
+
+import com.bank.transaction.exception.IdempotencyKeyReuseException;
+import com.bank.transaction.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyCacheTest {
+
+    private final IdempotencyCache cache = new IdempotencyCache(Duration.ofMinutes(5), DataSize.ofMegabytes(1));
+
+    @Test
+    public void getOrCreate_CollapsesConcurrentRetriesOntoOneCreation() throws Exception {
+        AtomicInteger creations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<IdempotencyCache.Outcome>> outcomes = new ArrayList<>();
+            outcomes.add(executor.submit(() -> cache.getOrCreate("client", "key", "body", () -> {
+                started.countDown();
+                await(release);
+                return newTransaction(creations.incrementAndGet());
+            })));
+            started.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                outcomes.add(executor.submit(() -> cache.getOrCreate("client", "key", "body", () -> newTransaction(creations.incrementAndGet()))));
+            }
+            release.countDown();
+
+            int replayed = 0;
+            for (Future<IdempotencyCache.Outcome> outcome : outcomes) {
+                assertEquals(1L, outcome.get(5, TimeUnit.SECONDS).transaction().getId());
+                replayed += outcome.get().replayed() ? 1 : 0;
+            }
+            assertEquals(1, creations.get());
+            assertEquals(3, replayed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getOrCreate_ForgetsFailedCreations() {
+        assertThrows(IllegalArgumentException.class, () -> cache.getOrCreate("client", "key", "body", () -> {
+            throw new IllegalArgumentException("Validation failed");
+        }));
+
+        IdempotencyCache.Outcome outcome = cache.getOrCreate("client", "key", "body", () -> newTransaction(2));
+
+        assertEquals(2L, outcome.transaction().getId());
+        assertFalse(outcome.replayed());
+        assertThrows(IllegalArgumentException.class, () -> cache.getOrCreate("client", " ", "body", () -> newTransaction(3)));
+        assertThrows(IllegalArgumentException.class, () -> cache.getOrCreate("client", "k".repeat(256), "body", () -> newTransaction(3)));
+    }
+
+    @Test
+    public void getOrCreate_RefusesKeyReusedWithDifferentBody() {
+        cache.getOrCreate("client", "key", IdempotencyCache.fingerprint("{\"amount\":1}".getBytes()), () -> newTransaction(1));
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> cache.getOrCreate("client", "key",
+                IdempotencyCache.fingerprint("{\"amount\":2}".getBytes()), () -> newTransaction(2)));
+        assertTrue(cache.getOrCreate("client", "key",
+                IdempotencyCache.fingerprint("{\"amount\":1}".getBytes()), () -> newTransaction(3)).replayed());
+    }
+
+    @Test
+    public void getOrCreate_ScopesKeysByClient() {
+        IdempotencyCache.Outcome first = cache.getOrCreate("alice", "key", "body", () -> newTransaction(1));
+        IdempotencyCache.Outcome second = cache.getOrCreate("bob", "key", "body", () -> newTransaction(2));
+
+        assertEquals(1L, first.transaction().getId());
+        assertEquals(2L, second.transaction().getId());
+        assertFalse(second.replayed());
+    }
+
+    private static Transaction newTransaction(long id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDescription("Idempotent " + id);
+        return transaction;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.bank.transaction.service.importer;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.service.impl.TransactionServiceImpl;
+import com.bank.transaction.service.persistence.DurabilityLevel;
+import com.bank.transaction.service.persistence.WriteAheadLog;
+import com.bank.transaction.service.store.HeapTransactionStore;
+import com.bank.transaction.service.store.StringDictionary;
+import com.bank.transaction.util.SnowflakeIdGenerator;
+import com.bank.transaction.util.TransactionCsv;
+import com.bank.transaction.validator.TransactionValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private TransactionServiceImpl service;
+    private TransactionImporter importer;
+
+    @BeforeEach
+    public void setup() {
+        service = new TransactionServiceImpl();
+        ReflectionTestUtils.setField(service, "idGenerator", new SnowflakeIdGenerator());
+        ReflectionTestUtils.setField(service, "transactionStore", new HeapTransactionStore(new StringDictionary()));
+        ReflectionTestUtils.setField(service, "writeAheadLog",
+                new WriteAheadLog(false, null, DurabilityLevel.FSYNC, DataSize.ofMegabytes(1), Duration.ofMillis(10)));
+
+        // 1KB chunks and small batches so a modest file exercises splitting and batching
+        importer = new TransactionImporter(directory, DataSize.ofKilobytes(1), 7, 3);
+        ReflectionTestUtils.setField(importer, "transactionService", service);
+        ReflectionTestUtils.setField(importer, "transactionValidator", new TransactionValidator());
+        ReflectionTestUtils.setField(importer, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importer, "objectMapper", new ObjectMapper().findAndRegisterModules());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        importer.shutdown();
+    }
+
+    @Test
+    public void importsCsvAcrossChunksAndReportsRejectedRows() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2023, 6, 1, 12, 0);
+        List<String> lines = new ArrayList<>();
+        lines.add(TransactionCsv.HEADER);
+        for (int i = 0; i < 200; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i);
+            transaction.setType(TransactionType.DEPOSIT);
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            transaction.setAmount(new BigDecimal("10.00"));
+            transaction.setTimestamp(base.plusMinutes(i));
+            transaction.setDestinationAccount("ACCT12345678");
+            transaction.setDescription("Row " + i + ", \"historical\"");
+            lines.add(TransactionCsv.format(transaction));
+        }
+        lines.add("1,WITHDRAWAL,COMPLETED,5.00,2023-06-01T12:00,,,Missing source,,");
+        lines.add("2,UNKNOWN,COMPLETED,5.00,,,,Bad type,,");
+        Files.write(directory.resolve("history.csv"), lines);
+
+        Map<String, Object> report = awaitCompletion(importer.start("history.csv"));
+
+        assertEquals(ImportJob.Status.COMPLETED, report.get("status"));
+        assertEquals(202L, report.get("rowsRead"));
+        assertEquals(200L, report.get("imported"));
+        assertEquals(2L, report.get("rejected"));
+        assertEquals(100.0, report.get("progress"));
+        assertEquals(200, service.getTransactionCount(TransactionType.DEPOSIT, TransactionStatus.COMPLETED, null));
+        assertEquals(base.plusMinutes(199), service.getTransactionsPaged(0, 1, null, null, null).get(0).getTimestamp());
+    }
+
+    @Test
+    public void importsNdjson() throws Exception {
+        Files.writeString(directory.resolve("history.ndjson"),
+                "{\"description\":\"a\",\"amount\":1,\"type\":\"DEPOSIT\",\"destinationAccount\":\"ACCT12345678\"}\n"
+                + "not json\n"
+                + "{\"description\":\"c\",\"amount\":1e20,\"type\":\"DEPOSIT\",\"destinationAccount\":\"ACCT12345678\"}\n"
+                + "{\"description\":\"b\",\"amount\":2,\"type\":\"WITHDRAWAL\",\"sourceAccount\":\"ACCT12345678\"}\n");
+
+        Map<String, Object> report = awaitCompletion(importer.start("history.ndjson"));
+
+        assertEquals(2L, report.get("imported"));
+        assertEquals(2L, report.get("rejected"));
+        assertEquals(2, service.getAllTransactions().size());
+    }
+
+    @Test
+    public void rejectsFilesOutsideImportDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> importer.start("../secrets.csv"));
+        assertThrows(IllegalArgumentException.class, () -> importer.start("missing.csv"));
+    }
+
+    @Test
+    public void rejectsLinksLeadingOutOfImportDirectory(@TempDir Path outside) throws Exception {
+        Path secret = Files.writeString(outside.resolve("secrets.csv"), "id\n");
+        Files.createSymbolicLink(directory.resolve("link.csv"), secret);
+        assertThrows(IllegalArgumentException.class, () -> importer.start("link.csv"));
+    }
+
+    @Test
+    public void acceptsRelativeImportDirectory() throws Exception {
+        Files.writeString(directory.resolve("history.ndjson"),
+                "{\"description\":\"a\",\"amount\":1,\"type\":\"DEPOSIT\",\"destinationAccount\":\"ACCT12345678\"}\n");
+        Path relative = Path.of(".").resolve(Path.of("").toAbsolutePath().relativize(directory));
+        TransactionImporter relativeImporter = new TransactionImporter(relative, DataSize.ofKilobytes(1), 7, 3);
+        ReflectionTestUtils.setField(relativeImporter, "transactionService", service);
+        ReflectionTestUtils.setField(relativeImporter, "transactionValidator", new TransactionValidator());
+        ReflectionTestUtils.setField(relativeImporter, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(relativeImporter, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        try {
+            assertEquals(1L, awaitCompletion(relativeImporter.start("history.ndjson")).get("imported"));
+        } finally {
+            relativeImporter.shutdown();
+        }
+    }
+
+    private Map<String, Object> awaitCompletion(ImportJob job) throws InterruptedException {
+        for (int i = 0; i < 200 && job.getStatus() == ImportJob.Status.RUNNING; i++) {
+            Thread.sleep(50);
+        }
+        return job.describe();
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.transaction.service.index;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.service.store.StringDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountIndexTest {
+
+    @Test
+    public void add_ReleasesReferenceWhenTransactionIsAlreadyIndexed() {
+        StringDictionary dictionary = new StringDictionary();
+        AccountIndex index = new AccountIndex(dictionary);
+        Transaction transaction = new Transaction();
+        transaction.setId(1L);
+        transaction.setTimestamp(LocalDateTime.now());
+        transaction.setSourceAccount(new String("ACCT12345678"));
+        transaction.setDestinationAccount(new String("ACCT87654321"));
+
+        index.add(transaction);
+        index.add(transaction);
+
+        // One reference per account: a second reference would count as saved bytes
+        assertEquals(0, dictionary.savedBytes());
+        assertEquals(1, index.history("ACCT12345678").size());
+
+        index.add(transaction);
+        index.remove(transaction);
+        dictionary.intern("ACCT12345678");
+        assertEquals(0, dictionary.savedBytes());
+        assertTrue(index.history("ACCT12345678").isEmpty());
+    }
+
+    @Test
+    public void canonical_ReturnsTheSharedInstance() {
+        StringDictionary dictionary = new StringDictionary();
+        AccountIndex index = new AccountIndex(dictionary);
+        String stored = dictionary.canonical(new String("ACCT12345678"));
+
+        assertSame(stored, index.canonical(new String("ACCT12345678")));
+        assertEquals("ACCT00000000", index.canonical("ACCT00000000"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.bank.transaction.service.persistence;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.service.impl.TransactionServiceImpl;
+import com.bank.transaction.service.store.HeapTransactionStore;
+import com.bank.transaction.service.store.StringDictionary;
+import com.bank.transaction.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private Transaction newTransaction(long id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDescription("Snapshot test " + id);
+        transaction.setAmount(new BigDecimal("42.10"));
+        transaction.setType(TransactionType.DEPOSIT);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setTimestamp(LocalDateTime.of(2024, 3, 15, 10, 30).plusSeconds(id));
+        return transaction;
+    }
+
+    @Test
+    public void load_ReadsEveryBlockOfTheLatestSnapshot() {
+        SnapshotManager snapshots = new SnapshotManager(true, directory, 1);
+        snapshots.write(5, Stream.of(newTransaction(1)));
+        // Enough rows for several 1MB blocks
+        snapshots.write(9, LongStream.rangeClosed(1, 20_000).mapToObj(this::newTransaction));
+
+        Map<Long, Transaction> loaded = new ConcurrentHashMap<>();
+        long lsn = new SnapshotManager(true, directory, 1).load(t -> loaded.put(t.getId(), t));
+
+        assertEquals(9, lsn);
+        assertEquals(20_000, loaded.size());
+        assertEquals(newTransaction(12_345), loaded.get(12_345L));
+    }
+
+    @Test
+    public void transactionService_RecoversFromSnapshotAndLogTail() throws IOException {
+        TransactionServiceImpl service = newService();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(service.createTransaction(newTransaction(0)).getId());
+        }
+        service.snapshot();
+        service.deleteTransaction(ids.get(0));
+        Transaction updated = newTransaction(0);
+        updated.setDescription("Updated after snapshot");
+        service.updateTransaction(ids.get(1), updated, null);
+        closeLog(service);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            // Segments fully covered by the snapshot were dropped
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().equals("wal-00000000000000000001.log")));
+        }
+
+        TransactionServiceImpl recovered = newService();
+        assertEquals(49, recovered.getAllTransactions().size());
+        assertNull(recovered.getTransaction(ids.get(0)));
+        assertEquals("Updated after snapshot", recovered.getTransaction(ids.get(1)).getDescription());
+        assertEquals(2L, recovered.getTransaction(ids.get(1)).getVersion());
+        assertEquals(49, recovered.getTransactionCount(null, TransactionStatus.COMPLETED, null));
+        closeLog(recovered);
+    }
+
+    private TransactionServiceImpl newService() {
+        TransactionServiceImpl service = new TransactionServiceImpl();
+        ReflectionTestUtils.setField(service, "idGenerator", new SnowflakeIdGenerator());
+        ReflectionTestUtils.setField(service, "transactionStore", new HeapTransactionStore(new StringDictionary()));
+        ReflectionTestUtils.setField(service, "writeAheadLog",
+                new WriteAheadLog(true, directory, DurabilityLevel.FSYNC, DataSize.ofKilobytes(2), Duration.ofMillis(10)));
+        ReflectionTestUtils.setField(service, "snapshotManager", new SnapshotManager(true, directory, 1));
+        service.recover();
+        return service;
+    }
+
+    private void closeLog(TransactionServiceImpl service) {
+        ((WriteAheadLog) ReflectionTestUtils.getField(service, "writeAheadLog")).close();
+    }
+}
@@ -0,0 +1,247 @@
+package com.bank.transaction.service.persistence;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.service.impl.TransactionServiceImpl;
+import com.bank.transaction.service.store.HeapTransactionStore;
+import com.bank.transaction.service.store.StringDictionary;
+import com.bank.transaction.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private WriteAheadLog openLog(DataSize segmentSize, List<WalRecord> replayed) {
+        WriteAheadLog log = new WriteAheadLog(true, directory, DurabilityLevel.FSYNC, segmentSize, Duration.ofMillis(10));
+        log.recover(0, replayed::add);
+        return log;
+    }
+
+    private Transaction newTransaction(long id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDescription("Café rent " + id);
+        transaction.setAmount(new BigDecimal("1250.005"));
+        transaction.setType(TransactionType.TRANSFER);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setSourceAccount("ACCT12345678");
+        transaction.setTimestamp(LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_456_789));
+        return transaction;
+    }
+
+    // The service refuses amounts it would have to round
+    private Transaction newServiceTransaction() {
+        Transaction transaction = newTransaction(0L);
+        transaction.setAmount(new BigDecimal("1250.05"));
+        return transaction;
+    }
+
+    @Test
+    public void recover_ReplaysRecordsInLogOrder() {
+        WriteAheadLog log = openLog(DataSize.ofMegabytes(1), new ArrayList<>());
+        Transaction transaction = newTransaction(7L);
+        log.await(log.appendPut(transaction));
+        log.await(log.appendDelete(7L));
+        log.close();
+
+        List<WalRecord> replayed = new ArrayList<>();
+        openLog(DataSize.ofMegabytes(1), replayed).close();
+
+        assertEquals(2, replayed.size());
+        assertEquals(new WalRecord(1, WalRecord.Type.PUT, 7L, transaction), replayed.get(0));
+        assertEquals(new WalRecord(2, WalRecord.Type.DELETE, 7L, null), replayed.get(1));
+    }
+
+    @Test
+    public void recover_ReplaysRecordsLoggedAtWriteDurability() {
+        WriteAheadLog log = new WriteAheadLog(true, directory, DurabilityLevel.WRITE, DataSize.ofMegabytes(1), Duration.ofMillis(10));
+        log.recover(0, record -> { });
+        for (long id = 1; id <= 3; id++) {
+            log.await(log.appendPut(newTransaction(id)));
+        }
+        log.close();
+
+        // Checksums are filled in by the flusher; a record with a wrong one would end the replay
+        List<WalRecord> replayed = new ArrayList<>();
+        openLog(DataSize.ofMegabytes(1), replayed).close();
+        assertEquals(List.of(1L, 2L, 3L), replayed.stream().map(WalRecord::lsn).toList());
+        assertEquals(newTransaction(2L), replayed.get(1).transaction());
+    }
+
+    @Test
+    public void recover_TruncatesTornTail() throws IOException {
+        WriteAheadLog log = openLog(DataSize.ofMegabytes(1), new ArrayList<>());
+        log.await(log.appendPut(newTransaction(1L)));
+        log.await(log.appendPut(newTransaction(2L)));
+        log.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        List<WalRecord> replayed = new ArrayList<>();
+        log = openLog(DataSize.ofMegabytes(1), replayed);
+        log.await(log.appendPut(newTransaction(3L)));
+        log.close();
+        assertEquals(1, replayed.size());
+
+        replayed.clear();
+        openLog(DataSize.ofMegabytes(1), replayed).close();
+        assertEquals(List.of(1L, 3L), replayed.stream().map(WalRecord::id).toList());
+    }
+
+    @Test
+    public void recover_SkipsRecordsTheHandlerRejects() {
+        WriteAheadLog log = openLog(DataSize.ofMegabytes(1), new ArrayList<>());
+        for (long id = 1; id <= 3; id++) {
+            log.await(log.appendPut(newTransaction(id)));
+        }
+        log.close();
+
+        List<Long> applied = new ArrayList<>();
+        log = new WriteAheadLog(true, directory, DurabilityLevel.FSYNC, DataSize.ofMegabytes(1), Duration.ofMillis(10));
+        long replayed = log.recover(0, record -> {
+            if (record.id() == 2L) {
+                throw new IllegalArgumentException("Amount is out of range");
+            }
+            applied.add(record.id());
+        });
+        log.await(log.appendPut(newTransaction(4L)));
+        log.close();
+
+        assertEquals(2, replayed);
+        assertEquals(List.of(1L, 3L), applied);
+        assertEquals(4L, log.lastLsn());
+    }
+
+    @Test
+    public void append_GroupsConcurrentWritesAndRollsSegments() throws Exception {
+        WriteAheadLog log = openLog(DataSize.ofKilobytes(4), new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> writes = new ArrayList<>();
+        for (int i = 1; i <= 400; i++) {
+            long id = i;
+            writes.add(executor.submit(() -> log.await(log.appendPut(newTransaction(id)))));
+        }
+        for (Future<?> write : writes) {
+            write.get();
+        }
+        executor.shutdown();
+        log.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 1);
+        }
+        List<WalRecord> replayed = new ArrayList<>();
+        openLog(DataSize.ofKilobytes(4), replayed).close();
+        assertEquals(400, replayed.size());
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals(i + 1, replayed.get(i).lsn());
+        }
+    }
+
+    @Test
+    public void transactionService_RecoversStateFromLog() {
+        TransactionServiceImpl service = newService();
+        Transaction kept = service.createTransaction(newServiceTransaction());
+        Transaction deleted = service.createTransaction(newServiceTransaction());
+        Transaction updated = newServiceTransaction();
+        updated.setStatus(TransactionStatus.PROCESSING);
+        service.updateTransaction(kept.getId(), updated, null);
+        service.deleteTransaction(deleted.getId());
+        closeLog(service);
+
+        TransactionServiceImpl recovered = newService();
+        assertEquals(1, recovered.getAllTransactions().size());
+        assertEquals(TransactionStatus.PROCESSING, recovered.getTransaction(kept.getId()).getStatus());
+        assertEquals(2L, recovered.getTransaction(kept.getId()).getVersion());
+        assertNull(recovered.getTransaction(deleted.getId()));
+        assertEquals(1, recovered.getTransactionCount(TransactionType.TRANSFER, TransactionStatus.PROCESSING, null));
+        closeLog(recovered);
+    }
+
+    @Test
+    public void transactionService_SkipsUnappliableRecordAtRecovery() {
+        WriteAheadLog log = openLog(DataSize.ofMegabytes(1), new ArrayList<>());
+        Transaction poison = newTransaction(1L);
+        poison.setAmount(new BigDecimal("1e20"));
+        log.await(log.appendPut(poison));
+        log.await(log.appendPut(newTransaction(2L)));
+        log.close();
+
+        TransactionServiceImpl recovered = newService();
+        assertNull(recovered.getTransaction(1L));
+        assertNotNull(recovered.getTransaction(2L));
+        assertEquals(1, recovered.getTransactionCount(null, null, null));
+        closeLog(recovered);
+    }
+
+    @Test
+    public void transactionService_RejectsUnindexableAmountBeforeLogging() {
+        TransactionServiceImpl service = newService();
+        Transaction transaction = newTransaction(0L);
+        transaction.setAmount(new BigDecimal("1e20"));
+        assertThrows(IllegalArgumentException.class, () -> service.createTransaction(transaction));
+        WriteAheadLog log = (WriteAheadLog) ReflectionTestUtils.getField(service, "writeAheadLog");
+        assertEquals(0L, log.lastLsn());
+        assertEquals(0, service.getTransactionCount(null, null, null));
+        closeLog(service);
+    }
+
+    @Test
+    public void transactionService_IssuesIdsPastRecoveredOnes() {
+        SnowflakeIdGenerator earlier = new SnowflakeIdGenerator();
+        long[] ahead = earlier.nextIds(4096 * 1000);
+        WriteAheadLog log = openLog(DataSize.ofMegabytes(1), new ArrayList<>());
+        log.await(log.appendPut(newTransaction(ahead[ahead.length - 1])));
+        log.close();
+
+        TransactionServiceImpl recovered = newService();
+        Transaction created = recovered.createTransaction(newServiceTransaction());
+        assertTrue(created.getId() > ahead[ahead.length - 1]);
+        assertEquals(2, recovered.getTransactionCount(null, null, null));
+        closeLog(recovered);
+    }
+
+    private TransactionServiceImpl newService() {
+        TransactionServiceImpl service = new TransactionServiceImpl();
+        ReflectionTestUtils.setField(service, "idGenerator", new SnowflakeIdGenerator());
+        ReflectionTestUtils.setField(service, "transactionStore", new HeapTransactionStore(new StringDictionary()));
+        ReflectionTestUtils.setField(service, "writeAheadLog",
+                new WriteAheadLog(true, directory, DurabilityLevel.FSYNC, DataSize.ofMegabytes(1), Duration.ofMillis(10)));
+        ReflectionTestUtils.setField(service, "snapshotManager", new SnapshotManager(true, directory, 1));
+        service.recover();
+        return service;
+    }
+
+    private void closeLog(TransactionServiceImpl service) {
+        ((WriteAheadLog) ReflectionTestUtils.getField(service, "writeAheadLog")).close();
+    }
+}
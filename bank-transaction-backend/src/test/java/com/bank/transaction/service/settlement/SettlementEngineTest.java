@@ -0,0 +1,128 @@
+package com.bank.transaction.service.settlement;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import com.bank.transaction.service.TransactionsCreatedEvent;
+import com.bank.transaction.service.TransactionsUpdatedEvent;
+import com.bank.transaction.service.impl.TransactionServiceImpl;
+import com.bank.transaction.service.persistence.DurabilityLevel;
+import com.bank.transaction.service.persistence.WriteAheadLog;
+import com.bank.transaction.service.store.HeapTransactionStore;
+import com.bank.transaction.service.store.StringDictionary;
+import com.bank.transaction.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+
+public class SettlementEngineTest {
+
+    private TransactionServiceImpl service;
+    private SettlementEngine engine;
+
+    @BeforeEach
+    public void setup() {
+        service = new TransactionServiceImpl();
+        ReflectionTestUtils.setField(service, "idGenerator", new SnowflakeIdGenerator());
+        ReflectionTestUtils.setField(service, "transactionStore", new HeapTransactionStore(new StringDictionary()));
+        ReflectionTestUtils.setField(service, "writeAheadLog",
+                new WriteAheadLog(false, null, DurabilityLevel.FSYNC, DataSize.ofMegabytes(1), Duration.ofMillis(10)));
+
+        engine = new SettlementEngine(2, 16, 8, true);
+        ReflectionTestUtils.setField(engine, "transactionService", service);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    public void settle_CompletesFundedTransactionsInOrderAndFailsOverdrafts() {
+        Transaction deposit = service.createTransaction(newTransaction(TransactionType.DEPOSIT, "100.00", TransactionStatus.INITIATED));
+        Transaction funded = service.createTransaction(newTransaction(TransactionType.WITHDRAWAL, "60.00", TransactionStatus.PENDING));
+        Transaction overdraft = service.createTransaction(newTransaction(TransactionType.WITHDRAWAL, "60.00", TransactionStatus.INITIATED));
+        Transaction settled = service.createTransaction(newTransaction(TransactionType.DEPOSIT, "5.00", TransactionStatus.COMPLETED));
+
+        engine.settle(List.of(overdraft.getId(), funded.getId(), deposit.getId(), settled.getId()));
+
+        Transaction completed = service.getTransaction(funded.getId());
+        assertEquals(TransactionStatus.COMPLETED, service.getTransaction(deposit.getId()).getStatus());
+        assertEquals(TransactionStatus.COMPLETED, completed.getStatus());
+        assertEquals(TransactionStatus.FAILED, service.getTransaction(overdraft.getId()).getStatus());
+        assertEquals(1L, service.getTransaction(settled.getId()).getVersion());
+        assertEquals(3L, completed.getVersion());
+        assertTrue(completed.getBankReference().startsWith("STL"));
+        assertNotNull(completed.getProcessingDate());
+        assertEquals(new BigDecimal("45.00"), service.getAccountBalance("ACCT12345678").getBalance());
+    }
+
+    @Test
+    public void onCreated_SettlesInTheBackground() throws InterruptedException {
+        Transaction deposit = service.createTransaction(newTransaction(TransactionType.DEPOSIT, "10.00", TransactionStatus.INITIATED));
+
+        engine.onCreated(new TransactionsCreatedEvent(List.of(deposit)));
+
+        for (int i = 0; i < 100 && service.getTransaction(deposit.getId()).getStatus() != TransactionStatus.COMPLETED; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(TransactionStatus.COMPLETED, service.getTransaction(deposit.getId()).getStatus());
+        assertEquals(0, engine.backlog());
+    }
+
+    @Test
+    public void settle_SchedulesSweepWhenChangesAreSkipped() {
+        Transaction deposit = service.createTransaction(newTransaction(TransactionType.DEPOSIT, "10.00", TransactionStatus.INITIATED));
+        TransactionServiceImpl conflicting = Mockito.spy(service);
+        doReturn(List.of()).when(conflicting).applyStatusChanges(anyList());
+        ReflectionTestUtils.setField(engine, "transactionService", conflicting);
+        AtomicBoolean sweepNeeded = (AtomicBoolean) ReflectionTestUtils.getField(engine, "sweepNeeded");
+        sweepNeeded.set(false);
+
+        engine.settle(List.of(deposit.getId()));
+
+        assertTrue(sweepNeeded.get());
+        assertEquals(TransactionStatus.INITIATED, service.getTransaction(deposit.getId()).getStatus());
+    }
+
+    @Test
+    public void onUpdated_SettlesTransactionsUpdatedWhileUnsettled() throws InterruptedException {
+        Transaction deposit = service.createTransaction(newTransaction(TransactionType.DEPOSIT, "10.00", TransactionStatus.INITIATED));
+        Transaction amended = service.updateTransaction(deposit.getId(),
+                newTransaction(TransactionType.DEPOSIT, "12.00", TransactionStatus.PENDING), 1L);
+
+        engine.onUpdated(new TransactionsUpdatedEvent(List.of(deposit), List.of(amended)));
+
+        for (int i = 0; i < 100 && service.getTransaction(deposit.getId()).getStatus() != TransactionStatus.COMPLETED; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(TransactionStatus.COMPLETED, service.getTransaction(deposit.getId()).getStatus());
+        assertEquals(new BigDecimal("12.00"), service.getAccountBalance("ACCT12345678").getBalance());
+    }
+
+    private static Transaction newTransaction(TransactionType type, String amount, TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setDescription("Settlement " + type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setType(type);
+        transaction.setStatus(status);
+        if (type == TransactionType.DEPOSIT) {
+            transaction.setDestinationAccount("ACCT12345678");
+        } else {
+            transaction.setSourceAccount("ACCT12345678");
+        }
+        return transaction;
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.transaction.service.store;
+
+import com.bank.transaction.model.Transaction;
+import com.bank.transaction.model.TransactionStatus;
+import com.bank.transaction.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapTransactionStoreTest {
+
+    private Transaction newTransaction(long id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDescription("Transfer " + (id % 3));
+        transaction.setAmount(new BigDecimal("12.34"));
+        transaction.setType(TransactionType.TRANSFER);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setSourceAccount("ACCT12345678");
+        transaction.setDestinationAccount("ACCT87654321");
+        transaction.setTimestamp(LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_000_000));
+        return transaction;
+    }
+
+    @Test
+    public void compute_RoundTripsAllFields() {
+        OffHeapTransactionStore store = new OffHeapTransactionStore(new StringDictionary(), 2, 2);
+        Transaction transaction = newTransaction(42L);
+        transaction.setBankReference("REF123456");
+        transaction.setProcessingDate(LocalDateTime.of(2024, 3, 16, 9, 0));
+
+        store.compute(42L, (id, existing) -> transaction);
+
+        assertEquals(transaction, store.get(42L));
+        assertNull(store.get(43L));
+    }
+
+    @Test
+    public void compute_RemovesAndKeepsRemainingRowsReachable() {
+        OffHeapTransactionStore store = new OffHeapTransactionStore(new StringDictionary(), 1, 2);
+        for (long id = 1; id <= 5; id++) {
+            Transaction transaction = newTransaction(id);
+            store.compute(id, (key, existing) -> transaction);
+        }
+
+        store.compute(2L, (id, existing) -> null);
+
+        assertNull(store.get(2L));
+        assertEquals(4, store.size());
+        for (long id : new long[] {1L, 3L, 4L, 5L}) {
+            assertEquals(id, store.get(id).getId());
+        }
+    }
+
+    @Test
+    public void compute_MatchesReferenceMapUnderRandomWrites() {
+        OffHeapTransactionStore store = new OffHeapTransactionStore(new StringDictionary(), 4, 2);
+        Map<Long, Transaction> reference = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 5_000; i++) {
+            long id = 1 + random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                store.compute(id, (key, existing) -> null);
+                reference.remove(id);
+            } else {
+                Transaction transaction = newTransaction(id);
+                transaction.setStatus(TransactionStatus.values()[random.nextInt(TransactionStatus.values().length)]);
+                store.compute(id, (key, existing) -> transaction);
+                reference.put(id, transaction);
+            }
+        }
+
+        assertEquals(reference.size(), store.size());
+        for (long id = 1; id <= 500; id++) {
+            assertEquals(reference.get(id), store.get(id));
+        }
+    }
+
+    @Test
+    public void compute_LeavesRowUnchangedWhenFunctionThrows() {
+        OffHeapTransactionStore store = new OffHeapTransactionStore(new StringDictionary(), 1, 2);
+        Transaction transaction = newTransaction(9L);
+        store.compute(9L, (id, existing) -> transaction);
+
+        assertThrows(IllegalArgumentException.class, () -> store.compute(9L, (id, existing) -> {
+            throw new IllegalArgumentException("Transaction not found");
+        }));
+
+        assertEquals(transaction, store.get(9L));
+    }
+}
@@ -0,0 +1,38 @@
+package com.bank.transaction.service.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringDictionaryTest {
+
+    @Test
+    public void intern_SharesOneInstanceAndCountsSavings() {
+        StringDictionary dictionary = new StringDictionary();
+
+        int first = dictionary.intern(new String("ACCT12345678"));
+        int second = dictionary.intern(new String("ACCT12345678"));
+        String canonical = dictionary.canonical(new String("ACCT12345678"));
+
+        assertEquals(first, second);
+        assertSame(dictionary.decode(first), canonical);
+        assertEquals(1, dictionary.size());
+        assertTrue(dictionary.savedBytes() > 0);
+        assertEquals(StringDictionary.NULL_CODE, dictionary.intern(null));
+        assertEquals(StringDictionary.UNKNOWN_CODE, dictionary.codeOf("ACCT00000000"));
+    }
+
+    @Test
+    public void release_ReturnsSavingsToZeroWhenOneReferenceRemains() {
+        StringDictionary dictionary = new StringDictionary();
+        int code = dictionary.intern("Monthly salary deposit");
+        dictionary.intern("Monthly salary deposit");
+        dictionary.intern("Monthly salary deposit");
+
+        dictionary.release(code);
+        dictionary.release("Monthly salary deposit");
+
+        assertEquals(0, dictionary.savedBytes());
+        assertEquals("Monthly salary deposit", dictionary.decode(code));
+    }
+}
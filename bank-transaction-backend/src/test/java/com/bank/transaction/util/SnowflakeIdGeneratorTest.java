@@ -0,0 +1,90 @@
+package com.bank.transaction.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    public void nextId_IsUniqueAcrossThreads() throws Exception {
+        assertUniqueAcrossThreads(new SnowflakeIdGenerator());
+        assertUniqueAcrossThreads(new SnowflakeIdGenerator(1L, 2L, 64));
+    }
+
+    @Test
+    public void nextIds_ReservesIncreasingBlockPastSequenceLimit() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
+        long before = generator.nextId();
+
+        long[] ids = generator.nextIds(10_000);
+        long after = generator.nextId();
+
+        assertTrue(ids[0] > before);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] > ids[i - 1]);
+        }
+        assertTrue(after > ids[ids.length - 1]);
+        assertThrows(IllegalArgumentException.class, () -> generator.nextIds(0));
+    }
+
+    @Test
+    public void nextId_KeepsUsingThreadBlockFromEarlierMillisecond() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0L, 0L, 64);
+        long first = generator.nextId();
+        for (int i = 1; i <= 5; i++) {
+            Thread.sleep(2);
+            assertEquals(first + i, generator.nextId());
+        }
+    }
+
+    @Test
+    public void advancePast_SkipsIdsIssuedAheadOfTheClock() {
+        SnowflakeIdGenerator earlier = new SnowflakeIdGenerator();
+        long[] ahead = earlier.nextIds(4096 * 1000);
+        long last = ahead[ahead.length - 1];
+
+        SnowflakeIdGenerator restarted = new SnowflakeIdGenerator();
+        restarted.advancePast(last);
+        restarted.advancePast(ahead[0]);
+
+        assertTrue(restarted.nextId() > last);
+    }
+
+    private void assertUniqueAcrossThreads(SnowflakeIdGenerator generator) throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                        if (i > 0) {
+                            assertTrue(ids[i] > ids[i - 1]);
+                        }
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> seen = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                for (long id : future.get()) {
+                    assertTrue(seen.add(id), "Duplicate ID " + id);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}